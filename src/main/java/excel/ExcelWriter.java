@@ -1,7 +1,8 @@
 package excel;
 
-import fred.data.Observation;
 import fred.data.Series;
+import fred.data.SeriesFrame;
+import fred.enumeration.JoinType;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.usermodel.charts.*;
 import org.apache.poi.ss.util.CellRangeAddress;
@@ -12,20 +13,33 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
 import static java.awt.Font.*;
 
 public class ExcelWriter {
-    private Series series;
+    private SeriesFrame seriesFrame;
     private LocalDate startDate;
     private LocalDate endDate;
 
     private int rowNum = 3;
 
     public ExcelWriter(Series series, LocalDate startDate, LocalDate endDate) {
-        this.series = series;
+        this(Collections.singletonList(series), startDate, endDate);
+    }
+
+    /**
+     * Creates writer of a report that compares several series side by side,
+     * one column per series. Dates of all series are kept and values missing
+     * on a date are left empty.
+     * @param seriesList series to be compared
+     * @param startDate first date of the report
+     * @param endDate last date of the report
+     */
+    public ExcelWriter(List<Series> seriesList, LocalDate startDate, LocalDate endDate) {
+        this.seriesFrame = SeriesFrame.align(JoinType.OUTER, seriesList);
         this.startDate = startDate;
         this.endDate = endDate;
     }
@@ -42,11 +56,12 @@ public class ExcelWriter {
         String path = file.getAbsolutePath();
         if (!path.endsWith(".xlsx")) path += ".xlsx";
 
+        rowNum = 3;
         try (FileOutputStream out = new FileOutputStream(path);
              Workbook workbook = new XSSFWorkbook()) {
             Sheet sheet = workbook.createSheet("Analysis");
 
-            String title = series.getHeader().getTitle();
+            String title = getTitle();
 
             DateTimeFormatter formatter =
                     DateTimeFormatter.ofPattern("MMM d, uuuu", Locale.US);
@@ -63,6 +78,16 @@ public class ExcelWriter {
         }
     }
 
+    private String getTitle() {
+        StringBuilder title = new StringBuilder();
+        for (int column = 0; column < seriesFrame.getColumnCount(); column++) {
+            if (column > 0) title.append(" vs. ");
+            title.append(seriesFrame.getHeaders().get(column).getTitle());
+        }
+
+        return title.toString();
+    }
+
     private void setTitleCell(Workbook workbook, Sheet sheet,
                               String text, int fontStyle, int rowNumber) {
         CellStyle cellStyle = workbook.createCellStyle();
@@ -83,7 +108,11 @@ public class ExcelWriter {
 
         Row headerRow = sheet.createRow(rowNum++);
         setHeaderCell(sheet, headerRow, 0, "Date", headerCellStyle);
-        setHeaderCell(sheet, headerRow, 1, "Value", headerCellStyle);
+        for (int column = 0; column < seriesFrame.getColumnCount(); column++) {
+            String name = seriesFrame.getColumnCount() == 1 ? "Value"
+                    : seriesFrame.getHeaders().get(column).getId();
+            setHeaderCell(sheet, headerRow, column + 1, name, headerCellStyle);
+        }
 
         setDataCells(workbook, sheet);
     }
@@ -112,17 +141,22 @@ public class ExcelWriter {
 
         CellStyle valueCellStyle = createDataCellStyle(workbook, "0.00");
 
-        List<Observation> observationList = series.getObservationList(startDate, endDate);
-        for (Observation observation : observationList) {
+        int firstRow = seriesFrame.indexOf(startDate.toEpochDay());
+        int lastRow = seriesFrame.indexOf(endDate.toEpochDay() + 1);
+        for (int i = firstRow; i < lastRow; i++) {
             Row row = sheet.createRow(rowNum++);
 
             Cell dateCell = row.createCell(0);
-            dateCell.setCellValue(dateFormatter.format(observation.getDate()));
+            dateCell.setCellValue(dateFormatter.format(seriesFrame.getDate(i)));
             dateCell.setCellStyle(dateCellStyle);
 
-            Cell valueCell = row.createCell(1);
-            valueCell.setCellValue(observation.getValue().doubleValue());
-            valueCell.setCellStyle(valueCellStyle);
+            for (int column = 0; column < seriesFrame.getColumnCount(); column++) {
+                if (!seriesFrame.hasValue(i, column)) continue;
+
+                Cell valueCell = row.createCell(column + 1);
+                valueCell.setCellValue(seriesFrame.getValue(i, column));
+                valueCell.setCellStyle(valueCellStyle);
+            }
         }
     }
 
@@ -142,9 +176,11 @@ public class ExcelWriter {
 
         ChartDataSource<Number> xAxisData = DataSources.fromNumericCellRange(
                 chartSheet, new CellRangeAddress(4, rowNum - 1, 0, 0));
-        ChartDataSource<Number> yAxisData = DataSources.fromNumericCellRange(
-                chartSheet, new CellRangeAddress(4, rowNum - 1, 1, 1));
-        data.addSeries(xAxisData, yAxisData);
+        for (int column = 1; column <= seriesFrame.getColumnCount(); column++) {
+            ChartDataSource<Number> yAxisData = DataSources.fromNumericCellRange(
+                    chartSheet, new CellRangeAddress(4, rowNum - 1, column, column));
+            data.addSeries(xAxisData, yAxisData);
+        }
         lineChart.plot(data, bottomAxis, leftAxis);
     }
 
@@ -0,0 +1,194 @@
+package fred.data;
+
+import java.util.Arrays;
+
+/**
+ * Multi-resolution summary of a series that serves any range of observations
+ * at the resolution of a chart. Level {@code k} of the pyramid splits
+ * the series into buckets of {@code 2^k} consecutive observations and keeps
+ * indices of the lowest and highest observation of every bucket; first and
+ * last observations of a bucket follow from its position. A range is drawn
+ * from the coarsest level that still has at least one bucket per pixel
+ * column, so the work depends on the width of the chart, not on the length
+ * of the range. Ranges are given by indices of observations, from
+ * (inclusive) to (exclusive).
+ */
+public final class DetailPyramid {
+    private final Series series;
+    private final int[][] minIndices;
+    private final int[][] maxIndices;
+
+    /**
+     * Creates new {@code DetailPyramid} object over observations of the given series.
+     * @param series summarized series
+     */
+    DetailPyramid(Series series) {
+        this.series = series;
+
+        int levels = 1;
+        while (1 << (levels - 1) < series.size()) levels++;
+        minIndices = new int[levels][];
+        maxIndices = new int[levels][];
+
+        for (int level = 1; level < levels; level++) {
+            int buckets = (series.size() + (1 << level) - 1) >> level;
+            int[] min = new int[buckets];
+            int[] max = new int[buckets];
+            for (int b = 0; b < buckets; b++) {
+                int left = 2 * b;
+                int right = Math.min(2 * b + 1, bucketCount(level - 1) - 1);
+                min[b] = lower(minIndex(level - 1, left), minIndex(level - 1, right));
+                max[b] = higher(maxIndex(level - 1, left), maxIndex(level - 1, right));
+            }
+            minIndices[level] = min;
+            maxIndices[level] = max;
+        }
+    }
+
+    /**
+     * Returns number of levels, including level 0 made of single observations.
+     * @return number of levels
+     */
+    public int getLevelCount() {
+        return minIndices.length;
+    }
+
+    /**
+     * Returns number of points a range drawn at the given width can have,
+     * i.e. capacity of buffers passed to
+     * {@link #getPoints(int, int, int, double[], double[])}.
+     * @param width width of the chart in pixels
+     * @return maximum number of points
+     */
+    public int getCapacity(int width) {
+        return 2 * width + 4 * getLevelCount() + 8;
+    }
+
+    /**
+     * Returns points of a line chart of the given range of observations,
+     * with at most two points per bucket of the level chosen for the width,
+     * plus the first and the last observation of the range. Ranges not longer
+     * than {@code 2 * width + 2} observations are returned whole.
+     * @param fromIndex index of the first observation (inclusive)
+     * @param toIndex index after the last observation (exclusive)
+     * @param width width of the chart in pixels
+     * @return new {@code PlotPoints} object
+     */
+    public PlotPoints getPoints(int fromIndex, int toIndex, int width) {
+        double[] xValues = new double[getCapacity(width)];
+        double[] yValues = new double[xValues.length];
+        int size = getPoints(fromIndex, toIndex, width, xValues, yValues);
+
+        return new PlotPoints(Arrays.copyOf(xValues, size), Arrays.copyOf(yValues, size));
+    }
+
+    /**
+     * Writes points of a line chart of the given range of observations
+     * to the given buffers, i.e. buffers reused by every update of a chart.
+     * @param fromIndex index of the first observation (inclusive)
+     * @param toIndex index after the last observation (exclusive)
+     * @param width width of the chart in pixels
+     * @param xValues buffer for values from x-axis, at least {@link #getCapacity(int)} long
+     * @param yValues buffer for values from y-axis, at least {@link #getCapacity(int)} long
+     * @return number of points written
+     * @see #getPoints(int, int, int)
+     */
+    public int getPoints(int fromIndex, int toIndex, int width,
+                         double[] xValues, double[] yValues) {
+        if (fromIndex < 0 || toIndex > series.size() || fromIndex > toIndex)
+            throw new IndexOutOfBoundsException(
+                    "Range [" + fromIndex + ", " + toIndex + ") is out of bounds");
+        if (width < 1)
+            throw new IllegalArgumentException("Width must be positive: " + width);
+        if (Math.min(xValues.length, yValues.length) < getCapacity(width))
+            throw new IllegalArgumentException("Buffers are too small for width: " + width);
+
+        int count = toIndex - fromIndex;
+        int level = 0;
+        if (count > 2 * width + 2) {
+            while (level < getLevelCount() - 1 && (count + (1 << level) - 1) >> level > width)
+                level++;
+        }
+
+        Points points = new Points(xValues, yValues);
+        if (count > 0) {
+            points.add(fromIndex);
+            addRange(points, fromIndex, toIndex, level);
+            points.add(toIndex - 1);
+        }
+
+        return points.size;
+    }
+
+    /**
+     * Adds points of the range, drawn from whole buckets of the given level
+     * and from buckets of lower levels at its unaligned ends.
+     */
+    private void addRange(Points points, int fromIndex, int toIndex, int level) {
+        if (fromIndex >= toIndex) return;
+        if (level == 0) {
+            for (int i = fromIndex; i < toIndex; i++) points.add(i);
+            return;
+        }
+
+        int firstBucket = (fromIndex + (1 << level) - 1) >> level;
+        int endBucket = toIndex >> level;
+        if (firstBucket >= endBucket) {
+            addRange(points, fromIndex, toIndex, level - 1);
+            return;
+        }
+
+        addRange(points, fromIndex, firstBucket << level, level - 1);
+        for (int b = firstBucket; b < endBucket; b++) {
+            int min = minIndices[level][b];
+            int max = maxIndices[level][b];
+            points.add(Math.min(min, max));
+            points.add(Math.max(min, max));
+        }
+        addRange(points, endBucket << level, toIndex, level - 1);
+    }
+
+    private int bucketCount(int level) {
+        return level == 0 ? series.size() : minIndices[level].length;
+    }
+
+    private int minIndex(int level, int bucket) {
+        return level == 0 ? bucket : minIndices[level][bucket];
+    }
+
+    private int maxIndex(int level, int bucket) {
+        return level == 0 ? bucket : maxIndices[level][bucket];
+    }
+
+    private int lower(int i, int j) {
+        return series.getMantissa(j) < series.getMantissa(i) ? j : i;
+    }
+
+    private int higher(int i, int j) {
+        return series.getMantissa(j) > series.getMantissa(i) ? j : i;
+    }
+
+    /**
+     * Points collected in ascending order of observations, each observation at most once.
+     */
+    private final class Points {
+        private final double[] xValues;
+        private final double[] yValues;
+        private int size;
+        private int lastIndex = -1;
+
+        private Points(double[] xValues, double[] yValues) {
+            this.xValues = xValues;
+            this.yValues = yValues;
+        }
+
+        private void add(int index) {
+            if (index <= lastIndex) return;
+
+            xValues[size] = series.getEpochDay(index);
+            yValues[size] = series.getValue(index);
+            size++;
+            lastIndex = index;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package fred.data;
+
+import fred.enumeration.Frequency;
+
+import java.time.LocalDate;
+
+/**
+ * Class that converts dates to and from the encoding used throughout
+ * {@code fred.data}: number of days since 1970-01-01, the same number
+ * as returned by {@link LocalDate#toEpochDay()}. Dates in Fed's
+ * yyyy-MM-dd format are converted with plain arithmetic, without
+ * {@code LocalDate.parse} and its formatter.
+ */
+public final class EpochDays {
+    /**
+     * Number of days from 0000-03-01 to 1970-01-01.
+     */
+    private static final int DAYS_0000_TO_1970 = 719_468;
+
+    /**
+     * Number of days in 400 years.
+     */
+    private static final int DAYS_PER_ERA = 146_097;
+
+    /**
+     * Saturday 1970-01-03, the first day of weekly periods.
+     */
+    private static final int WEEK_START = 2;
+
+    /**
+     * Thursday 1970-01-08, the first day of biweekly periods.
+     */
+    private static final int BIWEEK_START = 7;
+
+    private EpochDays() {
+    }
+
+    /**
+     * Returns the given date as number of days since 1970-01-01.
+     * @param date {@code LocalDate} object
+     * @return epoch day
+     */
+    public static int of(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    /**
+     * Returns date of the given epoch day.
+     * @param epochDay number of days since 1970-01-01
+     * @return {@code LocalDate} object
+     */
+    public static LocalDate toLocalDate(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Returns number of days since 1970-01-01 of the given date
+     * in yyyy-MM-dd format.
+     * @param text date in yyyy-MM-dd format
+     * @return epoch day
+     * @throws IllegalArgumentException if text is not a valid yyyy-MM-dd date
+     */
+    public static int parse(CharSequence text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-')
+            throw new IllegalArgumentException("Date is not in yyyy-MM-dd format: " + text);
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month))
+            throw new IllegalArgumentException("Invalid date: " + text);
+
+        return of(year, month, day);
+    }
+
+    /**
+     * Returns the same day of the month the given number of years later,
+     * or the last day of the month if it doesn't exist in the new year
+     * (i.e. February 29th becomes February 28th), like {@link LocalDate#plusYears(long)}.
+     * @param epochDay number of days since 1970-01-01
+     * @param years number of years to add, may be negative
+     * @return epoch day of the new date
+     */
+    public static int plusYears(int epochDay, int years) {
+        long civil = toCivil(epochDay);
+        int year = yearOf(civil) + years;
+        int month = monthOf(civil);
+
+        return of(year, month, Math.min(dayOf(civil), lengthOfMonth(year, month)));
+    }
+
+    /**
+     * Returns the first day of the period of the given number of months that
+     * contains the given day. Periods start with January, i.e. 3 months make
+     * quarters and 12 months make years.
+     * @param epochDay number of days since 1970-01-01
+     * @param months length of the period in months, a divisor of 12
+     * @return epoch day of the first day of the period
+     */
+    public static int firstDayOfPeriod(int epochDay, int months) {
+        if (months < 1 || 12 % months != 0)
+            throw new IllegalArgumentException("Months must be a divisor of 12: " + months);
+
+        long civil = toCivil(epochDay);
+        int month = monthOf(civil);
+
+        return of(yearOf(civil), month - (month - 1) % months, 1);
+    }
+
+    /**
+     * Returns the first day of the period of the given frequency that contains
+     * the given day, the way Fed delimits periods: weekly periods end on Friday,
+     * biweekly periods end on Wednesday and other periods start with January.
+     * @param epochDay number of days since 1970-01-01
+     * @param frequency frequency of the periods
+     * @return epoch day of the first day of the period
+     */
+    public static int firstDayOfPeriod(int epochDay, Frequency frequency) {
+        switch (frequency) {
+            case DAILY:
+                return epochDay;
+            case WEEKLY:
+                return epochDay - Math.floorMod(epochDay - WEEK_START, 7);
+            case BIWEEKLY:
+                return epochDay - Math.floorMod(epochDay - BIWEEK_START, 14);
+            case MONTHLY:
+                return firstDayOfPeriod(epochDay, 1);
+            case QUARTERLY:
+                return firstDayOfPeriod(epochDay, 3);
+            case SEMIANNUAL:
+                return firstDayOfPeriod(epochDay, 6);
+            case ANNUAL:
+                return firstDayOfPeriod(epochDay, 12);
+            default:
+                throw new IllegalArgumentException("Unsupported frequency: " + frequency);
+        }
+    }
+
+    /**
+     * Returns year, month and day of the given epoch day packed in one long.
+     */
+    private static long toCivil(int epochDay) {
+        int z = epochDay + DAYS_0000_TO_1970;
+        int era = Math.floorDiv(z, DAYS_PER_ERA);
+        int dayOfEra = z - era * DAYS_PER_ERA;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        return (long) year << 16 | month << 8 | day;
+    }
+
+    private static int yearOf(long civil) {
+        return (int) (civil >> 16);
+    }
+
+    private static int monthOf(long civil) {
+        return (int) (civil >> 8 & 0xff);
+    }
+
+    private static int dayOf(long civil) {
+        return (int) (civil & 0xff);
+    }
+
+    /**
+     * Returns number of days since 1970-01-01 of the given valid date.
+     */
+    private static int of(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = Math.floorMod(year, 4) == 0 &&
+                        (Math.floorMod(year, 100) != 0 || Math.floorMod(year, 400) == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int digits(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9')
+                throw new IllegalArgumentException("Date is not in yyyy-MM-dd format: " + text);
+            value = value * 10 + (c - '0');
+        }
+
+        return value;
+    }
+}
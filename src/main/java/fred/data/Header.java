@@ -13,6 +13,7 @@ public final class Header {
     private final LocalDate observation_end;
     private final String frequency;
     private final String units;
+    private final String last_updated;
 
     /**
      * Creates new {@code Header} object.
@@ -25,6 +26,23 @@ public final class Header {
      */
     public Header(String id, String title, LocalDate observation_start,
                   LocalDate observation_end, String frequency, String units) {
+        this(id, title, observation_start, observation_end, frequency, units, null);
+    }
+
+    /**
+     * Creates new {@code Header} object.
+     * @param id series identifier
+     * @param title series title
+     * @param observation_start date of the first observation
+     * @param observation_end date of the last observation
+     * @param frequency observation frequency
+     * @param units observation's units
+     * @param last_updated time of the last update as reported by Fed,
+     *        or null if it is unknown
+     */
+    public Header(String id, String title, LocalDate observation_start,
+                  LocalDate observation_end, String frequency, String units,
+                  String last_updated) {
         this.id = Objects.requireNonNull(id, "Identifier must not be null");
         this.title = Objects.requireNonNull(title, "Title must not be null");
         this.observation_start = Objects.requireNonNull(observation_start,
@@ -34,6 +52,7 @@ public final class Header {
         this.frequency = Objects.requireNonNull(frequency,
                 "Frequency must not be null");
         this.units = Objects.requireNonNull(units, "Units must not be null");
+        this.last_updated = last_updated;
     }
 
     /**
@@ -84,6 +103,15 @@ public final class Header {
         return units;
     }
 
+    /**
+     * Returns time of the last update of the series, as reported by Fed
+     * (i.e. 2019-01-30 07:51:02-06).
+     * @return time of the last update or null if it is unknown
+     */
+    public String getLast_updated() {
+        return last_updated;
+    }
+
     @Override
     public String toString() {
         return "Header{" +
@@ -93,6 +121,7 @@ public final class Header {
                 ", observation_end=" + observation_end +
                 ", frequency='" + frequency + '\'' +
                 ", units='" + units + '\'' +
+                ", last_updated='" + last_updated + '\'' +
                 '}';
     }
 
@@ -106,12 +135,13 @@ public final class Header {
                 Objects.equals(observation_start, header.observation_start) &&
                 Objects.equals(observation_end, header.observation_end) &&
                 Objects.equals(frequency, header.frequency) &&
-                Objects.equals(units, header.units);
+                Objects.equals(units, header.units) &&
+                Objects.equals(last_updated, header.last_updated);
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(id, title, observation_start,
-                observation_end, frequency, units);
+                observation_end, frequency, units, last_updated);
     }
 }
@@ -4,22 +4,12 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Objects;
 
-import static java.time.temporal.ChronoUnit.DAYS;
-
 /**
  * Class representing one observation.
  */
 public final class Observation {
-    /**
-     * Static starting point used to count number of days between
-     * it and date of this observation.
-     */
-    private static final LocalDate FIRST_OBSERVATION_DATE =
-            LocalDate.of(1500, 1, 1);
-
     private final LocalDate date;
     private final BigDecimal value;
-    private final long xMarker;
 
     /**
      * Creates new {@code Observation} object.
@@ -29,7 +19,6 @@ public final class Observation {
     public Observation(LocalDate date, BigDecimal value) {
         this.date = Objects.requireNonNull(date, "Date must not be null");
         this.value = Objects.requireNonNull(value, "Value must not be null");
-        this.xMarker = DAYS.between(FIRST_OBSERVATION_DATE, date);
     }
 
     /**
@@ -49,13 +38,13 @@ public final class Observation {
     }
 
     /**
-     * Returns number of days that passed from 1500-01-01
-     * until the day of this observation. Using it simplifies
-     * mapping between dates and their position on x-axis of the chart.
-     * @return x-axis marker associated with this observation
+     * Returns date of this observation as number of days since 1970-01-01,
+     * the encoding used by {@code Series} and as position on x-axis of the chart.
+     * @return epoch day of this observation
+     * @see EpochDays
      */
-    public long getxMarker() {
-        return xMarker;
+    public int getEpochDay() {
+        return EpochDays.of(date);
     }
 
     @Override
@@ -63,7 +52,6 @@ public final class Observation {
         return "Observation{" +
                 "date=" + date +
                 ", value=" + value +
-                ", xMarker=" + xMarker +
                 '}';
     }
 
@@ -73,12 +61,11 @@ public final class Observation {
         if (o == null || getClass() != o.getClass()) return false;
         Observation that = (Observation) o;
         return Objects.equals(value, that.value) &&
-                Objects.equals(date, that.date) &&
-                xMarker == that.xMarker;
+                Objects.equals(date, that.date);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(date, value, xMarker);
+        return Objects.hash(date, value);
     }
 }
@@ -0,0 +1,82 @@
+package fred.data;
+
+import java.util.Arrays;
+
+/**
+ * Class containing points of a line chart: dates as numbers of days
+ * since 1970-01-01 on x-axis and values on y-axis, as primitive arrays
+ * that are handed to the chart without copying or boxing.
+ */
+public final class PlotPoints {
+    private final double[] xValues;
+    private final double[] yValues;
+
+    /**
+     * Creates new {@code PlotPoints} object. Arrays are not copied.
+     * @param xValues values from x-axis
+     * @param yValues values from y-axis, of the same length
+     */
+    PlotPoints(double[] xValues, double[] yValues) {
+        if (xValues.length != yValues.length)
+            throw new IllegalArgumentException("Axes must have the same number of values");
+
+        this.xValues = xValues;
+        this.yValues = yValues;
+    }
+
+    /**
+     * Returns number of points.
+     * @return number of points
+     */
+    public int size() {
+        return xValues.length;
+    }
+
+    /**
+     * Returns values from x-axis. The array is shared and must not be modified.
+     * @return x-axis values
+     */
+    public double[] getXValues() {
+        return xValues;
+    }
+
+    /**
+     * Returns values from y-axis. The array is shared and must not be modified.
+     * @return y-axis values
+     */
+    public double[] getYValues() {
+        return yValues;
+    }
+
+    /**
+     * Fills the end of a reused buffer, from the given size onwards, with its
+     * last point. Charts that draw whole arrays then draw nothing more than
+     * the points written to the buffer.
+     * @param buffer buffer of x-axis or y-axis values
+     * @param size number of points written to the buffer
+     */
+    public static void padBuffer(double[] buffer, int size) {
+        if (size > 0) Arrays.fill(buffer, size, buffer.length, buffer[size - 1]);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PlotPoints that = (PlotPoints) o;
+        return Arrays.equals(xValues, that.xValues) &&
+                Arrays.equals(yValues, that.yValues);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(xValues) + Arrays.hashCode(yValues);
+    }
+
+    @Override
+    public String toString() {
+        return "PlotPoints{" +
+                "size=" + xValues.length +
+                '}';
+    }
+}
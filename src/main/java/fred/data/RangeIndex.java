@@ -0,0 +1,157 @@
+package fred.data;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.NoSuchElementException;
+
+/**
+ * Index over values of a series that answers range queries without scanning
+ * the range: minimum and maximum in logarithmic time, with a segment tree,
+ * and sum, count and average in constant time, with prefix sums.
+ * Ranges are given by indices of observations, from (inclusive) to (exclusive).
+ */
+public final class RangeIndex {
+    private final int size;
+    private final int scale;
+    private final long[] minTree;
+    private final long[] maxTree;
+    private final long[] prefixSums;
+
+    /**
+     * Prefix sums used instead of {@code prefixSums} if sum of some range
+     * doesn't fit in {@code long}, otherwise null.
+     */
+    private final BigInteger[] bigPrefixSums;
+
+    /**
+     * Creates new {@code RangeIndex} object over values of the given series.
+     * @param series indexed series
+     */
+    RangeIndex(Series series) {
+        this.size = series.size();
+        this.scale = series.getScale();
+        this.minTree = new long[2 * size];
+        this.maxTree = new long[2 * size];
+
+        long[] prefixSums = new long[size + 1];
+        long minPrefixSum = 0;
+        long maxPrefixSum = 0;
+        boolean isOverflow = false;
+        for (int i = 0; i < size; i++) {
+            long mantissa = series.getMantissa(i);
+            minTree[size + i] = mantissa;
+            maxTree[size + i] = mantissa;
+
+            long sum = prefixSums[i] + mantissa;
+            if (((prefixSums[i] ^ sum) & (mantissa ^ sum)) < 0) isOverflow = true;
+            prefixSums[i + 1] = sum;
+            minPrefixSum = Math.min(minPrefixSum, sum);
+            maxPrefixSum = Math.max(maxPrefixSum, sum);
+        }
+        long spread = maxPrefixSum - minPrefixSum;
+        if (((maxPrefixSum ^ minPrefixSum) & (maxPrefixSum ^ spread)) < 0) isOverflow = true;
+        for (int node = size - 1; node > 0; node--) {
+            minTree[node] = Math.min(minTree[2 * node], minTree[2 * node + 1]);
+            maxTree[node] = Math.max(maxTree[2 * node], maxTree[2 * node + 1]);
+        }
+
+        if (isOverflow) {
+            this.prefixSums = null;
+            this.bigPrefixSums = new BigInteger[size + 1];
+            bigPrefixSums[0] = BigInteger.ZERO;
+            for (int i = 0; i < size; i++)
+                bigPrefixSums[i + 1] = bigPrefixSums[i].add(BigInteger.valueOf(series.getMantissa(i)));
+        } else {
+            this.prefixSums = prefixSums;
+            this.bigPrefixSums = null;
+        }
+    }
+
+    /**
+     * Returns the smallest value in the range.
+     * @param fromIndex index of the first observation (inclusive)
+     * @param toIndex index after the last observation (exclusive)
+     * @return minimum of the values
+     * @throws NoSuchElementException if the range is empty
+     */
+    public double getMinimum(int fromIndex, int toIndex) {
+        checkNotEmpty(fromIndex, toIndex);
+
+        long min = Long.MAX_VALUE;
+        for (int l = fromIndex + size, r = toIndex + size; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) min = Math.min(min, minTree[l++]);
+            if ((r & 1) == 1) min = Math.min(min, minTree[--r]);
+        }
+
+        return ScaledDecimal.toDouble(min, scale);
+    }
+
+    /**
+     * Returns the largest value in the range.
+     * @param fromIndex index of the first observation (inclusive)
+     * @param toIndex index after the last observation (exclusive)
+     * @return maximum of the values
+     * @throws NoSuchElementException if the range is empty
+     */
+    public double getMaximum(int fromIndex, int toIndex) {
+        checkNotEmpty(fromIndex, toIndex);
+
+        long max = Long.MIN_VALUE;
+        for (int l = fromIndex + size, r = toIndex + size; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) max = Math.max(max, maxTree[l++]);
+            if ((r & 1) == 1) max = Math.max(max, maxTree[--r]);
+        }
+
+        return ScaledDecimal.toDouble(max, scale);
+    }
+
+    /**
+     * Returns sum of the values in the range.
+     * @param fromIndex index of the first observation (inclusive)
+     * @param toIndex index after the last observation (exclusive)
+     * @return sum of the values, 0 if the range is empty
+     */
+    public double getSum(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (bigPrefixSums != null)
+            return new BigDecimal(bigPrefixSums[toIndex].subtract(bigPrefixSums[fromIndex]), scale)
+                    .doubleValue();
+
+        return ScaledDecimal.toDouble(prefixSums[toIndex] - prefixSums[fromIndex], scale);
+    }
+
+    /**
+     * Returns number of values in the range.
+     * @param fromIndex index of the first observation (inclusive)
+     * @param toIndex index after the last observation (exclusive)
+     * @return number of values
+     */
+    public int getCount(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * Returns average of the values in the range.
+     * @param fromIndex index of the first observation (inclusive)
+     * @param toIndex index after the last observation (exclusive)
+     * @return average of the values
+     * @throws NoSuchElementException if the range is empty
+     */
+    public double getAverage(int fromIndex, int toIndex) {
+        checkNotEmpty(fromIndex, toIndex);
+        return getSum(fromIndex, toIndex) / (toIndex - fromIndex);
+    }
+
+    private void checkNotEmpty(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            throw new NoSuchElementException("Range is empty");
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+            throw new IndexOutOfBoundsException(
+                    "Range [" + fromIndex + ", " + toIndex + ") is out of bounds");
+    }
+}
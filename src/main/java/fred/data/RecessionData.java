@@ -1,32 +1,85 @@
 package fred.data;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.Arrays;
 
 /**
  * Class that contains data about all recessions
- * in the United States.
+ * in the United States. Recessions are kept as intervals
+ * of epoch days sorted by date, so that a chart can find
+ * the ones it shows without going through all of them.
  */
 public class RecessionData {
-    private List<XYAxesValues> axesValuesList;
+    private final int[] startEpochDays;
+    private final int[] endEpochDays;
+    private final long fingerprint;
 
     /**
      * Creates new {@code RecessionData} object.
-     * @param listOfRecessionSeries list of {@code Series}
-     *        objects in which one series contains
-     *        data about one U.S recession
+     * @param startEpochDays first days of the U.S. recessions, sorted by date
+     * @param endEpochDays last days of the same recessions
+     * @throws IllegalArgumentException if the arrays have different lengths
      */
-    public RecessionData(List<Series> listOfRecessionSeries) {
-        axesValuesList = createAxesValuesList(listOfRecessionSeries);
+    public RecessionData(int[] startEpochDays, int[] endEpochDays) {
+        if (startEpochDays.length != endEpochDays.length)
+            throw new IllegalArgumentException("Every recession must have start and end");
+
+        this.startEpochDays = startEpochDays.clone();
+        this.endEpochDays = endEpochDays.clone();
+        fingerprint = createFingerprint(this.startEpochDays, this.endEpochDays);
+    }
+
+    /**
+     * Returns number of recessions.
+     * @return number of recessions
+     */
+    public int getRecessionCount() {
+        return startEpochDays.length;
+    }
+
+    /**
+     * Returns first day of the recession at the given index.
+     * @param index index of the recession
+     * @return number of days since 1970-01-01
+     */
+    public int getStartEpochDay(int index) {
+        return startEpochDays[index];
     }
 
     /**
-     * Returns list of {@code XYContainer} objects.
-     * @return list of XYContainers
+     * Returns last day of the recession at the given index.
+     * @param index index of the recession
+     * @return number of days since 1970-01-01
      */
-    public List<XYAxesValues> getAxesValuesList() {
-        return axesValuesList;
+    public int getEndEpochDay(int index) {
+        return endEpochDays[index];
+    }
+
+    /**
+     * Returns index of the first recession that ends on or after the given day,
+     * i.e. the first recession visible on a chart starting with that day,
+     * or number of recessions if there is no such recession.
+     * @param epochDay number of days since 1970-01-01
+     * @return index of the recession
+     */
+    public int indexOf(long epochDay) {
+        int low = 0;
+        int high = endEpochDays.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (endEpochDays[middle] < epochDay) low = middle + 1;
+            else high = middle;
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns fingerprint of the recessions, computed once when this object
+     * was created out of their start and end days.
+     * @return fingerprint of the recessions
+     */
+    public long getFingerprint() {
+        return fingerprint;
     }
 
     @Override
@@ -34,42 +87,28 @@ public class RecessionData {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         RecessionData that = (RecessionData) o;
-        return Objects.equals(axesValuesList, that.axesValuesList);
+        return fingerprint == that.fingerprint &&
+                Arrays.equals(startEpochDays, that.startEpochDays) &&
+                Arrays.equals(endEpochDays, that.endEpochDays);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(axesValuesList);
+        return Long.hashCode(fingerprint);
     }
 
     @Override
     public String toString() {
         return "RecessionData{" +
-                "axesValuesList=" + axesValuesList +
+                "recessionCount=" + startEpochDays.length +
                 '}';
     }
 
-    private List<XYAxesValues> createAxesValuesList(List<Series> listOfRecessionSeries) {
-        List<XYAxesValues> axesValuesList = new ArrayList<>();
-
-        for (Series recession : listOfRecessionSeries) {
-            List<Observation> listOfRecessionObservations = recession.getObservationList();
-            List<Double> xValues = new ArrayList<>();
-            List<Double> topYValues = new ArrayList<>();
-            List<Double> bottomYValues = new ArrayList<>();
-
-            for (Observation obs : listOfRecessionObservations) {
-                xValues.add((double) obs.getxMarker());
-                //adding very large and very small values
-                //so that gray strip covers all visible vertical area
-                topYValues.add(1_000_000_000_000d);
-                bottomYValues.add(-1_000_000_000_000d);
-            }
-
-            axesValuesList.add(new XYAxesValues(xValues, topYValues));
-            axesValuesList.add(new XYAxesValues(xValues, bottomYValues));
-        }
+    private static long createFingerprint(int[] startEpochDays, int[] endEpochDays) {
+        long fingerprint = startEpochDays.length;
+        for (int i = 0; i < startEpochDays.length; i++)
+            fingerprint = 31 * (31 * fingerprint + startEpochDays[i]) + endEpochDays[i];
 
-        return axesValuesList;
+        return fingerprint;
     }
 }
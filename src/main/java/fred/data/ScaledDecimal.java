@@ -0,0 +1,243 @@
+package fred.data;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Class representing exact decimal number as {@code long} mantissa and number
+ * of decimal places, i.e. 1.50 is stored as mantissa 150 and scale 2.
+ * It keeps digits given by Fed without rounding them to binary fractions.
+ */
+public final class ScaledDecimal {
+    /**
+     * Maximum number of decimal places.
+     */
+    public static final int MAX_SCALE = 18;
+
+    private static final long[] LONG_POWERS_OF_TEN = new long[MAX_SCALE + 1];
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[MAX_SCALE + 1];
+
+    static {
+        LONG_POWERS_OF_TEN[0] = 1;
+        DOUBLE_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+            DOUBLE_POWERS_OF_TEN[i] = DOUBLE_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final long mantissa;
+    private final int scale;
+
+    /**
+     * Creates new {@code ScaledDecimal} object.
+     * @param mantissa value multiplied by 10 to the power of scale
+     * @param scale number of decimal places, from 0 to {@value #MAX_SCALE}
+     */
+    public ScaledDecimal(long mantissa, int scale) {
+        checkScale(scale);
+
+        this.mantissa = mantissa;
+        this.scale = scale;
+    }
+
+    /**
+     * Parses plain decimal number, i.e. "-12.750", straight from its characters.
+     * @param text decimal number with optional sign and decimal point
+     * @return new {@code ScaledDecimal} object
+     * @throws NumberFormatException if text is not a plain decimal number
+     *         or it doesn't fit in {@code long} mantissa
+     */
+    public static ScaledDecimal parse(CharSequence text) {
+        int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            index++;
+        }
+
+        long mantissa = 0;
+        int scale = -1;
+        int digits = 0;
+        for (; index < length; index++) {
+            char c = text.charAt(index);
+            if (c == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+            if (c < '0' || c > '9')
+                throw new NumberFormatException("Not a decimal number: " + text);
+
+            if (mantissa > (Long.MAX_VALUE - (c - '0')) / 10)
+                throw new NumberFormatException("Number is too large: " + text);
+            mantissa = mantissa * 10 + (c - '0');
+            digits++;
+            if (scale >= 0) scale++;
+        }
+
+        if (digits == 0)
+            throw new NumberFormatException("Not a decimal number: " + text);
+        if (scale > MAX_SCALE)
+            throw new NumberFormatException("Too many decimal places: " + text);
+
+        return new ScaledDecimal(negative ? -mantissa : mantissa, Math.max(scale, 0));
+    }
+
+    /**
+     * Converts {@code BigDecimal} to {@code ScaledDecimal} without loss of precision.
+     * @param value {@code BigDecimal} value
+     * @return new {@code ScaledDecimal} object
+     * @throws ArithmeticException if the value can't be represented exactly
+     */
+    public static ScaledDecimal valueOf(BigDecimal value) {
+        if (value.scale() < 0) value = value.setScale(0);
+        if (value.scale() > MAX_SCALE)
+            throw new ArithmeticException("Too many decimal places: " + value);
+
+        return new ScaledDecimal(value.unscaledValue().longValueExact(), value.scale());
+    }
+
+    /**
+     * Returns mantissa rescaled to more decimal places.
+     * @param mantissa value multiplied by 10 to the power of scale
+     * @param scale current number of decimal places
+     * @param newScale requested number of decimal places, not smaller than scale
+     * @return mantissa with newScale decimal places
+     * @throws ArithmeticException if the result doesn't fit in {@code long}
+     */
+    public static long rescale(long mantissa, int scale, int newScale) {
+        checkScale(newScale);
+        if (newScale < scale)
+            throw new IllegalArgumentException("Scale can't be reduced without rounding");
+
+        return Math.multiplyExact(mantissa, LONG_POWERS_OF_TEN[newScale - scale]);
+    }
+
+    /**
+     * Returns mantissa rounded half to even to fewer decimal places.
+     * @param mantissa value multiplied by 10 to the power of scale
+     * @param scale current number of decimal places
+     * @param newScale requested number of decimal places, not larger than scale
+     * @return mantissa with newScale decimal places
+     */
+    public static long round(long mantissa, int scale, int newScale) {
+        checkScale(scale);
+        if (newScale > scale)
+            throw new IllegalArgumentException("Scale can't be increased by rounding");
+        if (newScale == scale) return mantissa;
+
+        long divisor = LONG_POWERS_OF_TEN[scale - newScale];
+        long quotient = mantissa / divisor;
+        long remainder = Math.abs(mantissa % divisor);
+        long half = divisor / 2;
+        if (remainder > half || remainder == half && (quotient & 1) != 0)
+            quotient += mantissa < 0 ? -1 : 1;
+
+        return quotient;
+    }
+
+    /**
+     * Returns the largest number of decimal places, up to {@value #MAX_SCALE},
+     * to which mantissa can be rescaled without overflowing {@code long}.
+     * @param mantissa value multiplied by 10 to the power of scale
+     * @param scale current number of decimal places
+     * @return number of decimal places, not smaller than scale
+     */
+    public static int maxScale(long mantissa, int scale) {
+        checkScale(scale);
+
+        long magnitude = mantissa == Long.MIN_VALUE ? Long.MAX_VALUE : Math.abs(mantissa);
+        int newScale = scale;
+        while (newScale < MAX_SCALE
+                && magnitude <= Long.MAX_VALUE / LONG_POWERS_OF_TEN[newScale + 1 - scale])
+            newScale++;
+
+        return newScale;
+    }
+
+    /**
+     * Returns mantissa of the given double rounded to the given number of decimal places.
+     * @param value double value
+     * @param scale number of decimal places
+     * @return mantissa with scale decimal places
+     * @throws ArithmeticException if the value is not finite or the result
+     *         doesn't fit in {@code long}
+     */
+    public static long round(double value, int scale) {
+        checkScale(scale);
+
+        double scaled = Math.rint(value * DOUBLE_POWERS_OF_TEN[scale]);
+        if (Double.isNaN(scaled) || Math.abs(scaled) >= 0x1p63)
+            throw new ArithmeticException("Value can't be represented: " + value);
+
+        return (long) scaled;
+    }
+
+    /**
+     * Returns mantissa with the given scale converted to the closest double.
+     * @param mantissa value multiplied by 10 to the power of scale
+     * @param scale number of decimal places
+     * @return value as double
+     */
+    public static double toDouble(long mantissa, int scale) {
+        return mantissa / DOUBLE_POWERS_OF_TEN[scale];
+    }
+
+    /**
+     * Returns value multiplied by 10 to the power of scale.
+     * @return mantissa
+     */
+    public long getMantissa() {
+        return mantissa;
+    }
+
+    /**
+     * Returns number of decimal places.
+     * @return scale
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Returns closest double to this value.
+     * @return value as double
+     */
+    public double doubleValue() {
+        return toDouble(mantissa, scale);
+    }
+
+    /**
+     * Returns this value as {@code BigDecimal} with the same scale.
+     * @return new {@code BigDecimal} object
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(mantissa, scale);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ScaledDecimal that = (ScaledDecimal) o;
+        return mantissa == that.mantissa &&
+                scale == that.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mantissa, scale);
+    }
+
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE)
+            throw new IllegalArgumentException(
+                    "Scale must be between 0 and " + MAX_SCALE + ": " + scale);
+    }
+}
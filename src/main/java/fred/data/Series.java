@@ -1,17 +1,55 @@
 package fred.data;
 
+import fred.enumeration.AggregationMethod;
+import fred.enumeration.Frequency;
+import fred.enumeration.Units;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Class representing data series.
+ * Class representing data series. Observations are stored column by column
+ * in primitive arrays: dates as numbers of days since 1970-01-01 and values
+ * as exact {@code long} mantissas that share one number of decimal places.
+ * Values given by Fed with fewer decimal places keep them for display,
+ * i.e. 1.5 next to 0.125 is still shown as 1.5.
+ * {@code Observation} objects are created only when requested.
  */
 public final class Series {
+    private static final int[] NO_DAYS = new int[0];
+    private static final long[] NO_MANTISSAS = new long[0];
+
     private final Header header;
-    private final List<Observation> observationList;
+    private final int[] epochDays;
+    private final long[] mantissas;
+    private final int scale;
+
+    /**
+     * Numbers of decimal places of the values as given by Fed,
+     * or {@code null} if all of them have {@code scale} decimal places.
+     */
+    private final byte[] valueScales;
+
+    /**
+     * Fingerprint of the observations, computed once when the series is created.
+     */
+    private final long fingerprint;
+
+    /**
+     * Series derived from this one, by transformation. Refreshing a series
+     * creates a new object, so they never outlive the observations they come from.
+     */
+    private final ConcurrentMap<String, Series> derivedSeries = new ConcurrentHashMap<>();
+    private volatile RangeIndex rangeIndex;
+    private volatile DetailPyramid detailPyramid;
 
     /**
      * Creates new {@code Series} object.
@@ -19,8 +57,95 @@ public final class Series {
      * @param observationList list of {@code Observation} objects
      */
     public Series(Header header, List<Observation> observationList) {
+        this(header, toBuilder(observationList));
+    }
+
+    private Series(Header header, Builder builder) {
+        this(header, Arrays.copyOf(builder.epochDays, builder.size),
+                Arrays.copyOf(builder.mantissas, builder.size), builder.scale,
+                builder.copyValueScales());
+    }
+
+    private Series(Header header, int[] epochDays, long[] mantissas, int scale,
+                   byte[] valueScales) {
+        this(header, epochDays, mantissas, scale, valueScales,
+                fingerprint(epochDays, mantissas, scale, valueScales));
+    }
+
+    private Series(Header header, int[] epochDays, long[] mantissas, int scale,
+                   byte[] valueScales, long fingerprint) {
         this.header = header;
-        this.observationList = observationList;
+        this.epochDays = epochDays;
+        this.mantissas = mantissas;
+        this.scale = scale;
+        this.valueScales = valueScales;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Creates series straight out of its columns, i.e. decoded from a snapshot,
+     * without adding observations one by one. Arrays are not copied, so they
+     * must not be modified afterwards.
+     * @param header {@code Header} object
+     * @param epochDays dates of the observations as numbers of days since 1970-01-01,
+     *        in ascending order
+     * @param mantissas values of the observations multiplied by 10 to the power of scale
+     * @param scale number of decimal places shared by all values
+     * @param valueScales numbers of decimal places of the values, not larger than scale,
+     *        or null if all of them have scale decimal places
+     * @return new {@code Series} object
+     * @throws IllegalArgumentException if the columns don't fit together
+     */
+    public static Series ofColumns(Header header, int[] epochDays, long[] mantissas,
+                                   int scale, byte[] valueScales) {
+        if (scale < 0 || scale > ScaledDecimal.MAX_SCALE)
+            throw new IllegalArgumentException("Invalid scale: " + scale);
+        if (mantissas.length != epochDays.length
+                || valueScales != null && valueScales.length != epochDays.length)
+            throw new IllegalArgumentException("Columns must have the same length");
+
+        boolean isUniform = true;
+        if (valueScales != null) {
+            for (byte valueScale : valueScales) {
+                if (valueScale < 0 || valueScale > scale)
+                    throw new IllegalArgumentException("Invalid scale of a value: " + valueScale);
+                isUniform &= valueScale == scale;
+            }
+        }
+
+        return new Series(header, epochDays, mantissas, scale, isUniform ? null : valueScales);
+    }
+
+    private static Builder toBuilder(List<Observation> observationList) {
+        Builder builder = new Builder();
+        for (Observation observation : observationList)
+            builder.add(observation.getDate(), observation.getValue());
+
+        return builder;
+    }
+
+    /**
+     * Computes 64-bit fingerprint of the observations.
+     */
+    private static long fingerprint(int[] epochDays, long[] mantissas, int scale,
+                                    byte[] valueScales) {
+        long hash = mix(0x9e3779b97f4a7c15L ^ scale ^ (long) epochDays.length << 8);
+        for (int i = 0; i < epochDays.length; i++) {
+            hash = mix(hash ^ epochDays[i]);
+            hash = mix(hash ^ mantissas[i]);
+        }
+        if (valueScales != null) {
+            for (byte valueScale : valueScales)
+                hash = mix(hash ^ valueScale);
+        }
+
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
     }
 
     /**
@@ -32,49 +157,261 @@ public final class Series {
     }
 
     /**
-     * Returns list of observations of this object.
+     * Returns copy of this series with the given header. Observations are shared.
+     * @param header {@code Header} object
+     * @return new {@code Series} object
+     */
+    public Series withHeader(Header header) {
+        return new Series(header, epochDays, mantissas, scale, valueScales, fingerprint);
+    }
+
+    /**
+     * Returns fingerprint of the observations, computed once when the series
+     * was created. Series with equal observations have equal fingerprints,
+     * and series with different observations have different fingerprints
+     * with overwhelming probability, so it can be used to detect changes
+     * without comparing the observations. Header doesn't affect it.
+     * @return fingerprint of the observations
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns number of observations.
+     * @return number of observations
+     */
+    public int size() {
+        return epochDays.length;
+    }
+
+    /**
+     * Returns date of the observation at the given index
+     * as number of days since 1970-01-01.
+     * @param index index of the observation
+     * @return epoch day of the observation
+     */
+    public int getEpochDay(int index) {
+        return epochDays[index];
+    }
+
+    /**
+     * Returns date of the observation at the given index.
+     * @param index index of the observation
+     * @return date of the observation
+     */
+    public LocalDate getDate(int index) {
+        return EpochDays.toLocalDate(epochDays[index]);
+    }
+
+    /**
+     * Returns value of the observation at the given index
+     * as the closest double.
+     * @param index index of the observation
+     * @return value of the observation
+     */
+    public double getValue(int index) {
+        return ScaledDecimal.toDouble(mantissas[index], scale);
+    }
+
+    /**
+     * Returns exact value of the observation at the given index multiplied
+     * by 10 to the power of {@link #getScale()}.
+     * @param index index of the observation
+     * @return mantissa of the value
+     */
+    public long getMantissa(int index) {
+        return mantissas[index];
+    }
+
+    /**
+     * Returns exact value of the observation at the given index
+     * as {@code BigDecimal} with number of decimal places given by Fed.
+     * @param index index of the observation
+     * @return value of the observation
+     */
+    public BigDecimal getDecimalValue(int index) {
+        int valueScale = getValueScale(index);
+        return BigDecimal.valueOf(
+                ScaledDecimal.round(mantissas[index], scale, valueScale), valueScale);
+    }
+
+    /**
+     * Returns number of decimal places of the value at the given index
+     * as given by Fed, never larger than {@link #getScale()}.
+     * @param index index of the observation
+     * @return number of decimal places
+     */
+    public int getValueScale(int index) {
+        return valueScales == null ? scale : valueScales[index];
+    }
+
+    /**
+     * Returns number of decimal places shared by all values, i.e. the largest
+     * number of decimal places given by Fed. It is smaller only if such values
+     * don't fit in {@code long} mantissas, and then they are rounded.
+     * @return number of decimal places
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Returns observation at the given index.
+     * @param index index of the observation
+     * @return new {@code Observation} object
+     */
+    public Observation getObservation(int index) {
+        return new Observation(getDate(index), getDecimalValue(index));
+    }
+
+    /**
+     * Returns list of observations of this object. The list is read-only
+     * and creates {@code Observation} objects as they are requested.
      * @return list of {@code Observation} objects
      */
     public List<Observation> getObservationList() {
-        return observationList;
+        return new ObservationList();
     }
 
     /**
-     * Returns list of observations dated from first date to last date (inclusive).
-     * Observations must be sorted in ascending order, i.e., from earliest to most recent.
+     * Returns read-only view of observations dated from first date to last date
+     * (inclusive). Both ends of the range are found by binary search and
+     * observations are not copied.
      * @param firstDate starting date (inclusive)
      * @param lastDate ending date (inclusive)
-     * @return list of {@code Observation} objects
+     * @return {@code SeriesRange} view of the observations
      */
-    public List<Observation> getObservationList(LocalDate firstDate, LocalDate lastDate) {
+    public SeriesRange getObservationList(LocalDate firstDate, LocalDate lastDate) {
         if (firstDate.compareTo(lastDate) > 0)
             throw new IllegalArgumentException(
                     "First date cannot be after last date");
 
-        List<Observation> observationsBetween = new ArrayList<>();
-        for (Observation observation : observationList) {
-            LocalDate dateOfObservation = observation.getDate();
+        int fromIndex = indexOf(firstDate.toEpochDay());
+        int toIndex = indexOf(lastDate.toEpochDay() + 1);
 
-            if (dateOfObservation.compareTo(firstDate) >= 0 &&
-                    dateOfObservation.compareTo(lastDate) <= 0)
-                observationsBetween.add(observation);
+        return new SeriesRange(this, fromIndex, toIndex);
+    }
 
-            if (dateOfObservation.compareTo(lastDate) >= 0)
-                break;
+    /**
+     * Returns index of the first observation dated on or after the given day,
+     * or number of observations if there is no such observation.
+     * @param epochDay number of days since 1970-01-01
+     * @return index of the observation
+     */
+    public int indexOf(long epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochDays[middle] < epochDay) low = middle + 1;
+            else high = middle;
         }
 
-        return observationsBetween;
+        return low;
+    }
+
+    /**
+     * Returns new series in which observations dated from the given date onwards
+     * are replaced by observations of the newer series. Observations of this object
+     * are not modified, so it stays valid for everyone who still uses it.
+     * @param header header of the new series
+     * @param firstDate date from which observations are replaced (inclusive)
+     * @param newer series with observations dated from firstDate onwards
+     * @return new {@code Series} object
+     */
+    public Series merge(Header header, LocalDate firstDate, Series newer) {
+        long firstDay = firstDate.toEpochDay();
+
+        Builder builder = new Builder(header);
+        builder.addAll(this, 0, indexOf(firstDay));
+        builder.addAll(newer, newer.indexOf(firstDay), newer.size());
+
+        return builder.build();
+    }
+
+    /**
+     * Returns index that answers minimum, maximum, sum and average of values
+     * in any range of observations without scanning it. The index is built
+     * when it is requested for the first time.
+     * @return {@code RangeIndex} object
+     */
+    public RangeIndex getRangeIndex() {
+        RangeIndex index = rangeIndex;
+        if (index == null) rangeIndex = index = new RangeIndex(this);
+
+        return index;
+    }
+
+    /**
+     * Returns pyramid of minimums and maximums that serves any range
+     * of observations at the resolution of a chart. The pyramid is built
+     * when it is requested for the first time.
+     * @return {@code DetailPyramid} object
+     */
+    public DetailPyramid getDetailPyramid() {
+        DetailPyramid pyramid = detailPyramid;
+        if (pyramid == null) detailPyramid = pyramid = new DetailPyramid(this);
+
+        return pyramid;
+    }
+
+    /**
+     * Returns this series transformed to the given units, i.e. percent change
+     * from year ago. Transformed series is computed once and then remembered
+     * for as long as this object is used.
+     * @param units requested units
+     * @return new {@code Series} object, or this object for {@code Units.LEVELS}
+     */
+    public Series transform(Units units) {
+        Objects.requireNonNull(units, "Units must not be null");
+        if (units == Units.LEVELS) return this;
+
+        return derivedSeries.computeIfAbsent(units.getCode(),
+                code -> SeriesTransformations.transform(this, units));
     }
 
+    /**
+     * Returns series of averages of the given number of consecutive observations,
+     * dated with the last of them. Moving average is computed once and then
+     * remembered for as long as this object is used.
+     * @param window number of averaged observations
+     * @return new {@code Series} object
+     */
+    public Series movingAverage(int window) {
+        if (window < 1)
+            throw new IllegalArgumentException("Window must be positive: " + window);
+
+        return derivedSeries.computeIfAbsent("ma" + window,
+                code -> SeriesTransformations.movingAverage(this, window));
+    }
+
+    /**
+     * Returns this series with observations aggregated to calendar periods
+     * of the given frequency, i.e. daily exchange rates to monthly averages.
+     * Resampled series is computed once and then remembered for as long
+     * as this object is used.
+     * @param frequency frequency observations are aggregated to
+     * @param aggregationMethod method used to aggregate observations of one period
+     * @return new {@code Series} object
+     */
+    public Series resample(Frequency frequency, AggregationMethod aggregationMethod) {
+        Objects.requireNonNull(frequency, "Frequency must not be null");
+        Objects.requireNonNull(aggregationMethod, "Aggregation method must not be null");
+
+        return derivedSeries.computeIfAbsent(
+                frequency.getCode() + "_" + aggregationMethod.getCode(),
+                code -> SeriesResampler.resample(this, frequency, aggregationMethod));
+    }
 
     /**
      * Returns list of dates of all observations.
      * @return list of {@code LocalDate} objects
      */
     public List<LocalDate> getDateList() {
-        List<LocalDate> dateList = new ArrayList<>();
-        for (Observation obs : observationList)
-            dateList.add(obs.getDate());
+        List<LocalDate> dateList = new ArrayList<>(epochDays.length);
+        for (int i = 0; i < epochDays.length; i++)
+            dateList.add(getDate(i));
 
         return dateList;
     }
@@ -84,9 +421,9 @@ public final class Series {
      * @return list of {@code BigDecimal} values
      */
     public List<BigDecimal> getValueList() {
-        List<BigDecimal> valueList = new ArrayList<>();
-        for (Observation obs : observationList)
-            valueList.add(obs.getValue());
+        List<BigDecimal> valueList = new ArrayList<>(mantissas.length);
+        for (int i = 0; i < mantissas.length; i++)
+            valueList.add(getDecimalValue(i));
 
         return valueList;
     }
@@ -95,7 +432,7 @@ public final class Series {
     public String toString() {
         return "Series{" +
                 "header=" + header +
-                ",\nobservationList=" + observationList +
+                ",\nobservationList=" + getObservationList() +
                 '}';
     }
 
@@ -104,12 +441,248 @@ public final class Series {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Series series = (Series) o;
-        return Objects.equals(header, series.header) &&
-                Objects.equals(observationList, series.observationList);
+        return fingerprint == series.fingerprint &&
+                scale == series.scale &&
+                Objects.equals(header, series.header) &&
+                Arrays.equals(epochDays, series.epochDays) &&
+                Arrays.equals(mantissas, series.mantissas) &&
+                Arrays.equals(valueScales, series.valueScales);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(header, observationList);
+        return 31 * Objects.hashCode(header) + Long.hashCode(fingerprint);
+    }
+
+    /**
+     * Read-only view of the observations.
+     */
+    private final class ObservationList extends AbstractList<Observation>
+            implements RandomAccess {
+        @Override
+        public Observation get(int index) {
+            return getObservation(index);
+        }
+
+        @Override
+        public int size() {
+            return epochDays.length;
+        }
+    }
+
+    /**
+     * Class that collects observations one by one, i.e. while they are being
+     * read from the network, and creates {@code Series} out of them.
+     * Observations must be added in ascending order of their dates.
+     * Values are rescaled to the largest number of decimal places as long as
+     * they fit in {@code long} mantissas, and rounded to fewer of them otherwise.
+     */
+    public static final class Builder {
+        private Header header;
+        private int[] epochDays = NO_DAYS;
+        private long[] mantissas = NO_MANTISSAS;
+        private byte[] valueScales;
+        private int size;
+        private int scale;
+
+        /**
+         * Creates new {@code Builder} object for series without header.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Creates new {@code Builder} object.
+         * @param header {@code Header} object
+         */
+        public Builder(Header header) {
+            this.header = header;
+        }
+
+        /**
+         * Creates new {@code Builder} object with room for the given number
+         * of observations, i.e. when their number is known in advance.
+         * @param header {@code Header} object
+         * @param capacity expected number of observations
+         */
+        public Builder(Header header, int capacity) {
+            this.header = header;
+            ensureCapacity(capacity);
+        }
+
+        /**
+         * Adds observation to the series.
+         * @param date date of the observation
+         * @param value value of the observation
+         * @return this object
+         */
+        public Builder add(LocalDate date, BigDecimal value) {
+            Objects.requireNonNull(date, "Date must not be null");
+            Objects.requireNonNull(value, "Value must not be null");
+
+            return add(date, ScaledDecimal.valueOf(value));
+        }
+
+        /**
+         * Adds observation to the series.
+         * @param date date of the observation
+         * @param value value of the observation
+         * @return this object
+         */
+        public Builder add(LocalDate date, ScaledDecimal value) {
+            Objects.requireNonNull(date, "Date must not be null");
+            Objects.requireNonNull(value, "Value must not be null");
+
+            return add(EpochDays.of(date), value.getMantissa(), value.getScale());
+        }
+
+        /**
+         * Adds observation to the series.
+         * @param epochDay date of the observation as number of days since 1970-01-01
+         * @param mantissa value of the observation multiplied by 10 to the power of scale
+         * @param valueScale number of decimal places of the value
+         * @return this object
+         */
+        public Builder add(int epochDay, long mantissa, int valueScale) {
+            if (valueScale > scale) increaseScale(valueScale);
+            if (valueScale > scale) {
+                //values added so far don't fit with more decimal places
+                mantissa = ScaledDecimal.round(mantissa, valueScale, scale);
+                valueScale = scale;
+            } else if (ScaledDecimal.maxScale(mantissa, valueScale) < scale) {
+                reduceScale(ScaledDecimal.maxScale(mantissa, valueScale));
+            }
+
+            ensureCapacity(size + 1);
+            if (valueScale < scale) trackValueScales();
+            epochDays[size] = epochDay;
+            mantissas[size] = ScaledDecimal.rescale(mantissa, valueScale, scale);
+            if (valueScales != null) valueScales[size] = (byte) valueScale;
+            size++;
+
+            return this;
+        }
+
+        /**
+         * Adds observations of the given series, from fromIndex (inclusive)
+         * to toIndex (exclusive).
+         * @param series series observations are taken from
+         * @param fromIndex index of the first added observation
+         * @param toIndex index after the last added observation
+         * @return this object
+         */
+        public Builder addAll(Series series, int fromIndex, int toIndex) {
+            int count = toIndex - fromIndex;
+            if (count <= 0) return this;
+
+            if (size == 0) scale = series.scale;
+            if (series.scale != scale || series.valueScales != null || valueScales != null) {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    int valueScale = series.getValueScale(i);
+                    add(series.epochDays[i], ScaledDecimal.round(
+                            series.mantissas[i], series.scale, valueScale), valueScale);
+                }
+                return this;
+            }
+
+            ensureCapacity(size + count);
+            System.arraycopy(series.epochDays, fromIndex, epochDays, size, count);
+            System.arraycopy(series.mantissas, fromIndex, mantissas, size, count);
+            size += count;
+
+            return this;
+        }
+
+        /**
+         * Returns number of observations added so far.
+         * @return number of observations
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns date of the most recently added observation
+         * as number of days since 1970-01-01.
+         * @return epoch day of the last observation
+         * @throws IllegalStateException if no observation was added
+         */
+        public int getLastEpochDay() {
+            if (size == 0) throw new IllegalStateException("No observation was added");
+            return epochDays[size - 1];
+        }
+
+        /**
+         * Creates new {@code Series} object out of added observations.
+         * @return new {@code Series}
+         */
+        public Series build() {
+            return new Series(header, Arrays.copyOf(epochDays, size),
+                    Arrays.copyOf(mantissas, size), scale, copyValueScales());
+        }
+
+        /**
+         * Returns copy of numbers of decimal places of added values,
+         * or {@code null} if all of them have the shared number.
+         */
+        private byte[] copyValueScales() {
+            if (valueScales == null) return null;
+            for (int i = 0; i < size; i++)
+                if (valueScales[i] != scale) return Arrays.copyOf(valueScales, size);
+
+            return null;
+        }
+
+        /**
+         * Moves already added values to as many of the requested decimal places
+         * as they fit in.
+         * @param newScale requested number of decimal places
+         */
+        private void increaseScale(int newScale) {
+            long magnitude = 0;
+            for (int i = 0; i < size; i++)
+                magnitude = Math.max(magnitude, mantissas[i] == Long.MIN_VALUE
+                        ? Long.MAX_VALUE : Math.abs(mantissas[i]));
+            newScale = Math.min(newScale, ScaledDecimal.maxScale(magnitude, scale));
+            if (newScale == scale) return;
+
+            if (size > 0) trackValueScales();
+            for (int i = 0; i < size; i++)
+                mantissas[i] = ScaledDecimal.rescale(mantissas[i], scale, newScale);
+            scale = newScale;
+        }
+
+        /**
+         * Rounds already added values to fewer decimal places.
+         * @param newScale new number of decimal places
+         */
+        private void reduceScale(int newScale) {
+            for (int i = 0; i < size; i++) {
+                mantissas[i] = ScaledDecimal.round(mantissas[i], scale, newScale);
+                if (valueScales != null && valueScales[i] > newScale)
+                    valueScales[i] = (byte) newScale;
+            }
+            scale = newScale;
+        }
+
+        /**
+         * Starts remembering numbers of decimal places of single values,
+         * once they are not all the same.
+         */
+        private void trackValueScales() {
+            if (valueScales != null) return;
+
+            valueScales = new byte[epochDays.length];
+            Arrays.fill(valueScales, 0, size, (byte) scale);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= epochDays.length) return;
+
+            int newCapacity = Math.max(capacity, Math.max(16, epochDays.length * 2));
+            epochDays = Arrays.copyOf(epochDays, newCapacity);
+            mantissas = Arrays.copyOf(mantissas, newCapacity);
+            if (valueScales != null) valueScales = Arrays.copyOf(valueScales, newCapacity);
+        }
     }
 }
@@ -0,0 +1,288 @@
+package fred.data;
+
+import fred.enumeration.JoinType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Class representing several series aligned on their dates: one shared column
+ * of dates and one column of exact values per series. Values are kept
+ * as mantissas with number of decimal places of their series, together with
+ * numbers of decimal places Fed gave them if these differ within the series.
+ */
+public final class SeriesFrame {
+    /**
+     * Mantissa that marks a missing value. Fed values never come close to it.
+     */
+    private static final long MISSING = Long.MIN_VALUE;
+
+    private final List<Header> headers;
+    private final int[] epochDays;
+    private final long[][] columns;
+    private final int[] scales;
+
+    /**
+     * Numbers of decimal places of the values, per column, or null for columns
+     * whose values all have number of decimal places of their series.
+     */
+    private final byte[][] valueScales;
+
+    private SeriesFrame(List<Header> headers, int[] epochDays, long[][] columns, int[] scales,
+                        byte[][] valueScales) {
+        this.headers = headers;
+        this.epochDays = epochDays;
+        this.columns = columns;
+        this.scales = scales;
+        this.valueScales = valueScales;
+    }
+
+    /**
+     * Aligns observations of the given series on their dates.
+     * @param joinType way the dates are aligned
+     * @param series series to align, each becomes one column
+     * @return new {@code SeriesFrame} object
+     */
+    public static SeriesFrame align(JoinType joinType, Series... series) {
+        return align(joinType, Arrays.asList(series));
+    }
+
+    /**
+     * Aligns observations of the given series on their dates with merge join,
+     * which walks all series at once and visits every observation once.
+     * @param joinType way the dates are aligned
+     * @param seriesList series to align, each becomes one column
+     * @return new {@code SeriesFrame} object
+     */
+    public static SeriesFrame align(JoinType joinType, List<Series> seriesList) {
+        Objects.requireNonNull(joinType, "Join type must not be null");
+
+        int columnCount = seriesList.size();
+        List<Header> headers = new ArrayList<>(columnCount);
+        int[] scales = new int[columnCount];
+        int capacity = joinType == JoinType.INNER ? Integer.MAX_VALUE : 0;
+        for (int c = 0; c < columnCount; c++) {
+            Series series = seriesList.get(c);
+            headers.add(series.getHeader());
+            scales[c] = series.getScale();
+            capacity = joinType == JoinType.INNER ? Math.min(capacity, series.size())
+                    : capacity + series.size();
+        }
+        if (columnCount == 0) capacity = 0;
+
+        int[] epochDays = new int[capacity];
+        long[][] columns = new long[columnCount][capacity];
+        byte[][] valueScales = new byte[columnCount][];
+        int[] cursors = new int[columnCount];
+        long[] lastValues = new long[columnCount];
+        int[] lastScales = new int[columnCount];
+        Arrays.fill(lastValues, MISSING);
+
+        int rows = 0;
+        while (true) {
+            int day = Integer.MAX_VALUE;
+            int matching = 0;
+            boolean isExhausted = false;
+            for (int c = 0; c < columnCount; c++) {
+                Series series = seriesList.get(c);
+                if (cursors[c] >= series.size()) {
+                    isExhausted = true;
+                    continue;
+                }
+                int seriesDay = series.getEpochDay(cursors[c]);
+                if (seriesDay < day) {
+                    day = seriesDay;
+                    matching = 1;
+                } else if (seriesDay == day) {
+                    matching++;
+                }
+            }
+            if (day == Integer.MAX_VALUE || (isExhausted && joinType == JoinType.INNER)) break;
+
+            boolean isRow = joinType != JoinType.INNER || matching == columnCount;
+            for (int c = 0; c < columnCount; c++) {
+                Series series = seriesList.get(c);
+                boolean hasValue = cursors[c] < series.size() && series.getEpochDay(cursors[c]) == day;
+                if (hasValue) {
+                    lastScales[c] = series.getValueScale(cursors[c]);
+                    lastValues[c] = series.getMantissa(cursors[c]++);
+                }
+
+                if (isRow) {
+                    long value = hasValue || joinType == JoinType.AS_OF ? lastValues[c] : MISSING;
+                    columns[c][rows] = value;
+                    if (value != MISSING && lastScales[c] != scales[c]) {
+                        if (valueScales[c] == null) {
+                            valueScales[c] = new byte[capacity];
+                            Arrays.fill(valueScales[c], (byte) scales[c]);
+                        }
+                        valueScales[c][rows] = (byte) lastScales[c];
+                    }
+                }
+            }
+            if (isRow) epochDays[rows++] = day;
+        }
+
+        for (int c = 0; c < columnCount; c++) {
+            columns[c] = Arrays.copyOf(columns[c], rows);
+            if (valueScales[c] != null) valueScales[c] = Arrays.copyOf(valueScales[c], rows);
+        }
+
+        return new SeriesFrame(Collections.unmodifiableList(headers),
+                Arrays.copyOf(epochDays, rows), columns, scales, valueScales);
+    }
+
+    /**
+     * Returns number of rows, i.e. aligned dates.
+     * @return number of rows
+     */
+    public int getRowCount() {
+        return epochDays.length;
+    }
+
+    /**
+     * Returns number of columns, i.e. aligned series.
+     * @return number of columns
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Returns headers of the aligned series, in the order of columns.
+     * @return read-only list of {@code Header} objects
+     */
+    public List<Header> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns date of the given row as number of days since 1970-01-01.
+     * @param row index of the row
+     * @return epoch day of the row
+     */
+    public int getEpochDay(int row) {
+        return epochDays[row];
+    }
+
+    /**
+     * Returns date of the given row.
+     * @param row index of the row
+     * @return date of the row
+     */
+    public LocalDate getDate(int row) {
+        return EpochDays.toLocalDate(epochDays[row]);
+    }
+
+    /**
+     * Returns index of the first row dated on or after the given day,
+     * or number of rows if there is no such row.
+     * @param epochDay number of days since 1970-01-01
+     * @return index of the row
+     */
+    public int indexOf(long epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochDays[middle] < epochDay) low = middle + 1;
+            else high = middle;
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns true if the given column has value in the given row.
+     * @param row index of the row
+     * @param column index of the column
+     * @return true if the value is present
+     */
+    public boolean hasValue(int row, int column) {
+        return columns[column][row] != MISSING;
+    }
+
+    /**
+     * Returns value in the given row and column as the closest double.
+     * @param row index of the row
+     * @param column index of the column
+     * @return value or {@code Double.NaN} if it is missing
+     */
+    public double getValue(int row, int column) {
+        long mantissa = columns[column][row];
+        return mantissa == MISSING ? Double.NaN : ScaledDecimal.toDouble(mantissa, scales[column]);
+    }
+
+    /**
+     * Returns exact value in the given row and column, with number
+     * of decimal places Fed gave it, like {@link Series#getDecimalValue(int)}.
+     * @param row index of the row
+     * @param column index of the column
+     * @return value or null if it is missing
+     */
+    public BigDecimal getDecimalValue(int row, int column) {
+        long mantissa = columns[column][row];
+        if (mantissa == MISSING) return null;
+
+        int valueScale = valueScales[column] == null ? scales[column] : valueScales[column][row];
+        return BigDecimal.valueOf(
+                ScaledDecimal.round(mantissa, scales[column], valueScale), valueScale);
+    }
+
+    /**
+     * Returns all values of the given column as doubles, i.e. to be plotted
+     * against {@link #getEpochDays()}. Missing values are {@code Double.NaN}.
+     * @param column index of the column
+     * @return new array of values
+     */
+    public double[] getColumnValues(int column) {
+        double[] values = new double[epochDays.length];
+        for (int row = 0; row < values.length; row++)
+            values[row] = getValue(row, column);
+
+        return values;
+    }
+
+    /**
+     * Returns dates of all rows as numbers of days since 1970-01-01.
+     * @return new array of epoch days
+     */
+    public int[] getEpochDays() {
+        return epochDays.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "SeriesFrame{" +
+                "headers=" + headers +
+                ", rowCount=" + epochDays.length +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SeriesFrame that = (SeriesFrame) o;
+        return Objects.equals(headers, that.headers) &&
+                Arrays.equals(epochDays, that.epochDays) &&
+                Arrays.deepEquals(columns, that.columns) &&
+                Arrays.equals(scales, that.scales) &&
+                Arrays.deepEquals(valueScales, that.valueScales);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(headers);
+        result = 31 * result + Arrays.hashCode(epochDays);
+        result = 31 * result + Arrays.deepHashCode(columns);
+        result = 31 * result + Arrays.hashCode(scales);
+        result = 31 * result + Arrays.deepHashCode(valueScales);
+        return result;
+    }
+}
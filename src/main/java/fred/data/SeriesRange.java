@@ -0,0 +1,167 @@
+package fred.data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of consecutive observations of a series, i.e. observations
+ * dated between two dates. The view doesn't copy observations, it is backed
+ * by the columns of the series it was created from.
+ */
+public final class SeriesRange extends AbstractList<Observation> implements RandomAccess {
+    private final Series series;
+    private final int fromIndex;
+    private final int toIndex;
+
+    /**
+     * Creates new {@code SeriesRange} object.
+     * @param series series the observations belong to
+     * @param fromIndex index of the first observation in the series (inclusive)
+     * @param toIndex index after the last observation in the series (exclusive)
+     */
+    SeriesRange(Series series, int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > series.size() || fromIndex > toIndex)
+            throw new IndexOutOfBoundsException(
+                    "Range [" + fromIndex + ", " + toIndex + ") is out of bounds");
+
+        this.series = series;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    /**
+     * Returns series this range is a view of.
+     * @return {@code Series} object
+     */
+    public Series getSeries() {
+        return series;
+    }
+
+    /**
+     * Returns index of the first observation of this range in the series.
+     * @return index in the series (inclusive)
+     */
+    public int getFromIndex() {
+        return fromIndex;
+    }
+
+    /**
+     * Returns index after the last observation of this range in the series.
+     * @return index in the series (exclusive)
+     */
+    public int getToIndex() {
+        return toIndex;
+    }
+
+    @Override
+    public int size() {
+        return toIndex - fromIndex;
+    }
+
+    @Override
+    public Observation get(int index) {
+        return series.getObservation(toSeriesIndex(index));
+    }
+
+    /**
+     * Returns date of the observation at the given index
+     * as number of days since 1970-01-01.
+     * @param index index of the observation in this range
+     * @return epoch day of the observation
+     */
+    public int getEpochDay(int index) {
+        return series.getEpochDay(toSeriesIndex(index));
+    }
+
+    /**
+     * Returns date of the observation at the given index.
+     * @param index index of the observation in this range
+     * @return date of the observation
+     */
+    public LocalDate getDate(int index) {
+        return series.getDate(toSeriesIndex(index));
+    }
+
+    /**
+     * Returns value of the observation at the given index.
+     * @param index index of the observation in this range
+     * @return value of the observation
+     */
+    public double getValue(int index) {
+        return series.getValue(toSeriesIndex(index));
+    }
+
+    /**
+     * Returns exact value of the observation at the given index multiplied
+     * by 10 to the power of the scale of the series.
+     * @param index index of the observation in this range
+     * @return mantissa of the value
+     */
+    public long getMantissa(int index) {
+        return series.getMantissa(toSeriesIndex(index));
+    }
+
+    /**
+     * Returns value of the observation at the given index as {@code BigDecimal}.
+     * @param index index of the observation in this range
+     * @return value of the observation
+     */
+    public BigDecimal getDecimalValue(int index) {
+        return series.getDecimalValue(toSeriesIndex(index));
+    }
+
+    /**
+     * Returns the smallest value in this range.
+     * @return minimum of the values
+     * @throws java.util.NoSuchElementException if the range is empty
+     */
+    public double getMinimum() {
+        return series.getRangeIndex().getMinimum(fromIndex, toIndex);
+    }
+
+    /**
+     * Returns the largest value in this range.
+     * @return maximum of the values
+     * @throws java.util.NoSuchElementException if the range is empty
+     */
+    public double getMaximum() {
+        return series.getRangeIndex().getMaximum(fromIndex, toIndex);
+    }
+
+    /**
+     * Returns sum of the values in this range.
+     * @return sum of the values
+     */
+    public double getSum() {
+        return series.getRangeIndex().getSum(fromIndex, toIndex);
+    }
+
+    /**
+     * Returns average of the values in this range.
+     * @return average of the values
+     * @throws java.util.NoSuchElementException if the range is empty
+     */
+    public double getAverage() {
+        return series.getRangeIndex().getAverage(fromIndex, toIndex);
+    }
+
+    /**
+     * Returns points of a line chart of this range, reduced to the given
+     * width of the chart without losing peaks and troughs.
+     * @param width width of the chart in pixels
+     * @return new {@code PlotPoints} object
+     */
+    public PlotPoints downsample(int width) {
+        return series.getDetailPyramid().getPoints(fromIndex, toIndex, width);
+    }
+
+    private int toSeriesIndex(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", Size: " + size());
+
+        return fromIndex + index;
+    }
+}
@@ -0,0 +1,100 @@
+package fred.data;
+
+import fred.enumeration.AggregationMethod;
+import fred.enumeration.Frequency;
+
+/**
+ * Kernel that aggregates observations of a series to calendar periods
+ * of lower frequency in a single pass over its primitive columns. Periods
+ * are dated the way Fed dates them: weekly and biweekly periods with their
+ * last day, other periods with their first day.
+ */
+final class SeriesResampler {
+    private SeriesResampler() {
+    }
+
+    /**
+     * Returns series with observations aggregated to the given frequency.
+     * @param series series with observations sorted by date
+     * @param frequency frequency observations are aggregated to
+     * @param aggregationMethod method used to aggregate observations of one period
+     * @return new {@code Series} object
+     */
+    static Series resample(Series series, Frequency frequency,
+                           AggregationMethod aggregationMethod) {
+        int scale = series.getScale();
+        int averageScale = Math.max(scale, SeriesTransformations.DERIVED_SCALE);
+        Series.Builder builder = new Series.Builder();
+
+        int period = 0;
+        int count = 0;
+        long sum = 0;
+        long min = 0;
+        long max = 0;
+        long last = 0;
+        for (int i = 0; i <= series.size(); i++) {
+            boolean hasNext = i < series.size();
+            int nextPeriod = hasNext ? periodOf(series.getEpochDay(i), frequency) : 0;
+
+            if (count > 0 && (!hasNext || nextPeriod != period)) {
+                switch (aggregationMethod) {
+                    case AVERAGE:
+                        double average = ScaledDecimal.toDouble(sum, scale) / count;
+                        builder.add(period, ScaledDecimal.round(average, averageScale), averageScale);
+                        break;
+                    case SUM:
+                        builder.add(period, sum, scale);
+                        break;
+                    case END_OF_PERIOD:
+                        builder.add(period, last, scale);
+                        break;
+                    case MINIMUM:
+                        builder.add(period, min, scale);
+                        break;
+                    case MAXIMUM:
+                        builder.add(period, max, scale);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(
+                                "Unsupported aggregation method: " + aggregationMethod);
+                }
+                count = 0;
+            }
+            if (!hasNext) break;
+
+            long mantissa = series.getMantissa(i);
+            if (count == 0) {
+                period = nextPeriod;
+                sum = 0;
+                min = mantissa;
+                max = mantissa;
+            }
+            sum = Math.addExact(sum, mantissa);
+            min = Math.min(min, mantissa);
+            max = Math.max(max, mantissa);
+            last = mantissa;
+            count++;
+        }
+
+        return SeriesTransformations.withDerivedHeader(series, builder.build(),
+                frequency.getLabel(), null);
+    }
+
+    /**
+     * Returns date of the period of the given frequency that contains the given day.
+     * @param epochDay number of days since 1970-01-01
+     * @param frequency frequency of the periods
+     * @return epoch day the period is dated with
+     */
+    static int periodOf(int epochDay, Frequency frequency) {
+        int firstDay = EpochDays.firstDayOfPeriod(epochDay, frequency);
+        switch (frequency) {
+            case WEEKLY:
+                return firstDay + 6;
+            case BIWEEKLY:
+                return firstDay + 13;
+            default:
+                return firstDay;
+        }
+    }
+}
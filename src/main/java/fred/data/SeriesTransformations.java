@@ -0,0 +1,216 @@
+package fred.data;
+
+import fred.enumeration.Units;
+
+/**
+ * Kernels that derive new series from the primitive columns of a series
+ * in a single pass. Observations for which the result is undefined,
+ * i.e. percent change from zero or logarithm of a negative value,
+ * are left out, the same way Fed leaves them out.
+ */
+final class SeriesTransformations {
+    /**
+     * Number of decimal places of results that are not exact,
+     * i.e. percent changes and logarithms.
+     */
+    static final int DERIVED_SCALE = 6;
+
+    private SeriesTransformations() {
+    }
+
+    /**
+     * Returns series transformed to the given units.
+     * @param series series with values in levels
+     * @param units requested units
+     * @return new {@code Series} object
+     */
+    static Series transform(Series series, Units units) {
+        Series.Builder builder = new Series.Builder();
+        switch (units) {
+            case LEVELS:
+                return series;
+            case CHANGE:
+                change(series, builder, false);
+                break;
+            case CHANGE_FROM_YEAR_AGO:
+                change(series, builder, true);
+                break;
+            case PERCENT_CHANGE:
+                percentChange(series, builder, false);
+                break;
+            case PERCENT_CHANGE_FROM_YEAR_AGO:
+                percentChange(series, builder, true);
+                break;
+            case NATURAL_LOG:
+                naturalLog(series, builder);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported units: " + units);
+        }
+
+        return withDerivedHeader(series, builder.build(), null, units.getLabel());
+    }
+
+    /**
+     * Returns series of averages of the given number of consecutive observations,
+     * dated with the last of them.
+     * @param series series with values in levels
+     * @param window number of averaged observations
+     * @return new {@code Series} object
+     */
+    static Series movingAverage(Series series, int window) {
+        if (window < 1)
+            throw new IllegalArgumentException("Window must be positive: " + window);
+
+        int scale = series.getScale();
+        int resultScale = Math.max(scale, DERIVED_SCALE);
+        Series.Builder builder = new Series.Builder();
+
+        long sum = 0;
+        for (int i = 0; i < series.size(); i++) {
+            sum = Math.addExact(sum, series.getMantissa(i));
+            if (i >= window) sum = Math.subtractExact(sum, series.getMantissa(i - window));
+            if (i < window - 1) continue;
+
+            double average = ScaledDecimal.toDouble(sum, scale) / window;
+            builder.add(series.getEpochDay(i), ScaledDecimal.round(average, resultScale), resultScale);
+        }
+
+        return withDerivedHeader(series, builder.build(), null,
+                window + "-Period Moving Average");
+    }
+
+    private static void change(Series series, Series.Builder builder, boolean fromYearAgo) {
+        int scale = series.getScale();
+        YearAgo yearAgo = YearAgo.of(series);
+        int j = 0;
+        for (int i = 1; i < series.size(); i++) {
+            if (fromYearAgo) {
+                j = findYearAgo(series, yearAgo, i, j);
+                if (j < 0) {
+                    j = -j - 1;
+                    continue;
+                }
+            } else {
+                j = i - 1;
+            }
+
+            long change = Math.subtractExact(series.getMantissa(i), series.getMantissa(j));
+            builder.add(series.getEpochDay(i), change, scale);
+        }
+    }
+
+    private static void percentChange(Series series, Series.Builder builder, boolean fromYearAgo) {
+        YearAgo yearAgo = YearAgo.of(series);
+        int j = 0;
+        for (int i = 1; i < series.size(); i++) {
+            if (fromYearAgo) {
+                j = findYearAgo(series, yearAgo, i, j);
+                if (j < 0) {
+                    j = -j - 1;
+                    continue;
+                }
+            } else {
+                j = i - 1;
+            }
+
+            long previous = series.getMantissa(j);
+            if (previous == 0) continue;
+
+            //both mantissas have the same scale, so it cancels out
+            double percentChange = ((double) series.getMantissa(i) / previous - 1) * 100;
+            builder.add(series.getEpochDay(i),
+                    ScaledDecimal.round(percentChange, DERIVED_SCALE), DERIVED_SCALE);
+        }
+    }
+
+    private static void naturalLog(Series series, Series.Builder builder) {
+        for (int i = 0; i < series.size(); i++) {
+            double value = series.getValue(i);
+            if (value <= 0) continue;
+
+            builder.add(series.getEpochDay(i),
+                    ScaledDecimal.round(Math.log(value), DERIVED_SCALE), DERIVED_SCALE);
+        }
+    }
+
+    /**
+     * Finds observation a year before the observation at the given index, the way Fed
+     * finds it for the frequency of the series (see {@link YearAgo}). Dates are sorted,
+     * so the search continues from the previously found index.
+     * @param series searched series
+     * @param yearAgo rule the observation is found with
+     * @param index index of the observation
+     * @param from index the search starts from
+     * @return index of the observation from a year ago or (-(insertion point) - 1)
+     *         if there is no such observation
+     */
+    private static int findYearAgo(Series series, YearAgo yearAgo, int index, int from) {
+        int day = series.getEpochDay(index);
+        int target = yearAgo == YearAgo.FIFTY_TWO_WEEKS ? day - 52 * 7
+                : EpochDays.plusYears(day, -1);
+
+        int j = from;
+        while (j < index && series.getEpochDay(j) <= target) j++;
+
+        boolean isFound = j > 0 && (yearAgo == YearAgo.LATEST_BEFORE
+                || series.getEpochDay(j - 1) == target);
+        return isFound ? j - 1 : -j - 1;
+    }
+
+    /**
+     * Rules Fed uses to find observation from a year ago.
+     */
+    private enum YearAgo {
+        /**
+         * Observation dated on the same day a year earlier, i.e. 12 months
+         * or 4 quarters back. Used for monthly and lower frequencies.
+         */
+        SAME_DATE,
+
+        /**
+         * Observation 52 weeks back, i.e. 52 weekly or 26 biweekly periods.
+         */
+        FIFTY_TWO_WEEKS,
+
+        /**
+         * The latest observation on or before the same day a year earlier.
+         * Used for daily series that skip weekends and holidays, and for
+         * series of unknown frequency.
+         */
+        LATEST_BEFORE;
+
+        private static YearAgo of(Series series) {
+            Header header = series.getHeader();
+            String frequency = header == null ? "" : header.getFrequency();
+
+            if (frequency.startsWith("Weekly") || frequency.startsWith("Biweekly"))
+                return FIFTY_TWO_WEEKS;
+            if (frequency.startsWith("Monthly") || frequency.startsWith("Quarterly")
+                    || frequency.startsWith("Semiannual") || frequency.startsWith("Annual"))
+                return SAME_DATE;
+            return LATEST_BEFORE;
+        }
+    }
+
+    /**
+     * Returns derived series with header of the given series, updated to describe it.
+     * @param series series the observations were derived from
+     * @param derived derived series without header
+     * @param frequency frequency of the derived series or null if it didn't change
+     * @param unitsLabel description of the derivation added to the units, or null
+     * @return derived series with header, or without it if the given series has none
+     */
+    static Series withDerivedHeader(Series series, Series derived,
+                                    String frequency, String unitsLabel) {
+        Header header = series.getHeader();
+        if (header == null) return derived;
+
+        return derived.withHeader(new Header(header.getId(), header.getTitle(),
+                derived.size() > 0 ? derived.getDate(0) : header.getObservation_start(),
+                derived.size() > 0 ? derived.getDate(derived.size() - 1) : header.getObservation_end(),
+                frequency == null ? header.getFrequency() : frequency,
+                unitsLabel == null ? header.getUnits() : header.getUnits() + ", " + unitsLabel,
+                header.getLast_updated()));
+    }
+}
@@ -0,0 +1,40 @@
+package fred.enumeration;
+
+public enum AggregationMethod {
+    AVERAGE("Average", "avg", true),
+    SUM("Sum", "sum", true),
+    END_OF_PERIOD("End of Period", "eop", true),
+    MINIMUM("Minimum", "min", false),
+    MAXIMUM("Maximum", "max", false);
+
+    private String label;
+    private String code;
+    private boolean supportedByFed;
+
+    AggregationMethod(String label, String code, boolean supportedByFed) {
+        this.label = label;
+        this.code = code;
+        this.supportedByFed = supportedByFed;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns code Fred API uses for this aggregation method.
+     * @return aggregation method code
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Returns true if Fred API can aggregate observations with this method.
+     * Other methods are only available locally, with {@code Series.resample}.
+     * @return true if the method can be requested from Fed
+     */
+    public boolean isSupportedByFed() {
+        return supportedByFed;
+    }
+}
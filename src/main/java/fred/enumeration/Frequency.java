@@ -0,0 +1,31 @@
+package fred.enumeration;
+
+public enum Frequency {
+    DAILY("Daily", "d"),
+    WEEKLY("Weekly, Ending Friday", "w"),
+    BIWEEKLY("Biweekly, Ending Wednesday", "bw"),
+    MONTHLY("Monthly", "m"),
+    QUARTERLY("Quarterly", "q"),
+    SEMIANNUAL("Semiannual", "sa"),
+    ANNUAL("Annual", "a");
+
+    private String label;
+    private String code;
+
+    Frequency(String label, String code) {
+        this.label = label;
+        this.code = code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns code Fred API uses for this frequency.
+     * @return frequency code
+     */
+    public String getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,32 @@
+package fred.enumeration;
+
+/**
+ * Ways of aligning observations of several series on their dates.
+ */
+public enum JoinType {
+    /**
+     * Dates of all series; values missing on a date are left empty.
+     */
+    OUTER("Outer"),
+
+    /**
+     * Only dates on which every series has an observation.
+     */
+    INNER("Inner"),
+
+    /**
+     * Dates of all series; value missing on a date is replaced by the most
+     * recent earlier value of the same series (last value carried forward).
+     */
+    AS_OF("As of");
+
+    private String label;
+
+    JoinType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,33 @@
+package fred.enumeration;
+
+/**
+ * Transformations of series values, named after the units Fred API offers.
+ */
+public enum Units {
+    LEVELS("Levels", "lin"),
+    CHANGE("Change", "chg"),
+    CHANGE_FROM_YEAR_AGO("Change from Year Ago", "ch1"),
+    PERCENT_CHANGE("Percent Change", "pch"),
+    PERCENT_CHANGE_FROM_YEAR_AGO("Percent Change from Year Ago", "pc1"),
+    NATURAL_LOG("Natural Log", "log");
+
+    private String label;
+    private String code;
+
+    Units(String label, String code) {
+        this.label = label;
+        this.code = code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns code Fred API uses for these units.
+     * @return units code
+     */
+    public String getCode() {
+        return code;
+    }
+}
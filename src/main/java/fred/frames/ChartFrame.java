@@ -1,9 +1,11 @@
 package fred.frames;
 
+import fred.data.DetailPyramid;
 import fred.data.Header;
-import fred.data.Observation;
+import fred.data.PlotPoints;
+import fred.data.RecessionData;
 import fred.data.Series;
-import fred.data.XYAxesValues;
+import fred.network.FredConnection;
 import org.knowm.xchart.XChartPanel;
 import org.knowm.xchart.XYChart;
 import org.knowm.xchart.XYChartBuilder;
@@ -13,26 +15,67 @@ import org.knowm.xchart.style.markers.SeriesMarkers;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
-import static fred.network.FredConnection.RECESSION_DATA;
 import static java.time.temporal.ChronoUnit.DAYS;
 import static java.time.temporal.ChronoUnit.YEARS;
 
 public class ChartFrame extends JFrame {
+    /**
+     * Width of the plot assumed before the chart panel is laid out.
+     */
+    private static final int DEFAULT_PLOT_WIDTH = 800;
+
+    /**
+     * Factor the visible range is scaled by for one notch of the mouse wheel.
+     */
+    private static final double ZOOM_FACTOR = 1.25;
+
+    /**
+     * Height of recession bars, so that they cover all visible vertical area.
+     */
+    private static final double RECESSION_BAR_HEIGHT = 1_000_000_000_000d;
+
+    private static final Color RECESSION_COLOR = new Color(Color.LIGHT_GRAY.getRed(),
+            Color.LIGHT_GRAY.getGreen(), Color.LIGHT_GRAY.getBlue(), 100);
+
+    private static final DateTimeFormatter MONTH_FORMATTER =
+            DateTimeFormatter.ofPattern("uuuu-MM");
+
     private Series series;
     private LocalDate startDate;
     private LocalDate endDate;
 
     private XYChart chart;
+    private XChartPanel<XYChart> chartPanel;
+    private volatile int plotWidth;
+
+    private int dragX;
+    private LocalDate dragStartDate;
+    private LocalDate dragEndDate;
+
+    private int fromIndex;
+    private int toIndex;
+    private double[] xAxisValues;
+    private double[] yAxisValues;
+    private final Map<Double, Object> xMarkMap = new TreeMap<>();
 
-    private List<Double> xAxisValues;
-    private List<Double> yAxisValues;
+    private RecessionData recessionData;
+    private int recessionBarCount;
+    private final Consumer<RecessionData> recessionDataListener = recessionData ->
+            EventQueue.invokeLater(() -> addRecessionBars(recessionData));
+
+    private BiConsumer<LocalDate, LocalDate> rangeListener;
 
     public ChartFrame(Series series, LocalDate startDate, LocalDate endDate) {
         this.series = series;
@@ -41,25 +84,205 @@ public class ChartFrame extends JFrame {
 
         prepareAxesLists();
         chart = createChart(series.getHeader());
-        setAxesProperties();
+        setAxesProperties(series.getRangeIndex().getMinimum(fromIndex, toIndex),
+                series.getRangeIndex().getMaximum(fromIndex, toIndex));
+
+        chartPanel = new XChartPanel<>(chart);
+        chartPanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                if (getPlotWidth() != plotWidth) updateSeries();
+            }
+        });
+        addZoomAndPan(chartPanel);
+        add(chartPanel, BorderLayout.CENTER);
+
+        FredConnection.addRecessionDataListener(recessionDataListener);
+        loadRecessionData();
+    }
+
+    /**
+     * Adds recession bars once recession data is available. If downloading
+     * fails, the user is asked on the event dispatch thread whether to try again.
+     * Newer data delivered to the recession data listener in the meantime
+     * is not replaced.
+     */
+    private void loadRecessionData() {
+        FredConnection.getRecessionData().whenComplete((recessionData, e) ->
+                EventQueue.invokeLater(() -> {
+                    if (e != null) askToReloadRecessionData(e);
+                    else if (this.recessionData == null) addRecessionBars(recessionData);
+                }));
+    }
 
-        if (RECESSION_DATA != null) addRecessionBars();
+    private void askToReloadRecessionData(Throwable e) {
+        e.printStackTrace();
 
-        add(new XChartPanel<>(chart), BorderLayout.CENTER);
+        int answer = JOptionPane.showConfirmDialog(this,
+                "Recession data downloading failed. Do you want to try to download it again?",
+                "Network error", JOptionPane.YES_NO_OPTION, JOptionPane.ERROR_MESSAGE);
+        if (answer == JOptionPane.YES_OPTION) loadRecessionData();
     }
 
     public void updateAxes(LocalDate startDate, LocalDate endDate) {
         this.startDate = startDate;
         this.endDate = endDate;
 
+        updateSeries();
+        setAxesProperties(series.getRangeIndex().getMinimum(fromIndex, toIndex),
+                series.getRangeIndex().getMaximum(fromIndex, toIndex));
+        updateRecessionBars();
+    }
+
+    /**
+     * Stops following updates of recession data, so that disposed chart
+     * can be garbage collected.
+     */
+    @Override
+    public void dispose() {
+        FredConnection.removeRecessionDataListener(recessionDataListener);
+        super.dispose();
+    }
+
+    /**
+     * Sets listener that is notified, on the event dispatch thread, of every
+     * range the user zooms or pans the chart to.
+     * @param rangeListener listener that accepts first and last date of the range
+     */
+    public void setRangeListener(BiConsumer<LocalDate, LocalDate> rangeListener) {
+        this.rangeListener = rangeListener;
+    }
+
+    /**
+     * Computes everything the chart needs to show the given range, at the last
+     * known width of the plot. Unlike other methods, it may be called outside
+     * the event dispatch thread, so that the work is done in the background.
+     * @param startDate first date of the range
+     * @param endDate last date of the range
+     * @return update to be applied with {@link #applyAxesUpdate(AxesUpdate)}
+     */
+    public AxesUpdate computeAxesUpdate(LocalDate startDate, LocalDate endDate) {
+        int fromIndex = series.indexOf(startDate.toEpochDay());
+        int toIndex = series.indexOf(endDate.toEpochDay() + 1);
+        int width = plotWidth;
+
+        return new AxesUpdate(startDate, endDate, fromIndex, toIndex, width,
+                series.getDetailPyramid().getPoints(fromIndex, toIndex, width),
+                series.getRangeIndex().getMinimum(fromIndex, toIndex),
+                series.getRangeIndex().getMaximum(fromIndex, toIndex));
+    }
+
+    /**
+     * Shows range computed by {@link #computeAxesUpdate(LocalDate, LocalDate)}.
+     * Points are copied to the buffers of the chart, unless the width
+     * of the plot has changed since, in which case they are computed again.
+     * @param update computed update
+     */
+    public void applyAxesUpdate(AxesUpdate update) {
+        if (update.width != getPlotWidth()) {
+            updateAxes(update.startDate, update.endDate);
+            return;
+        }
+
+        startDate = update.startDate;
+        endDate = update.endDate;
+        fromIndex = update.fromIndex;
+        toIndex = update.toIndex;
+
+        int capacity = series.getDetailPyramid().getCapacity(plotWidth);
+        if (xAxisValues == null || xAxisValues.length != capacity) {
+            xAxisValues = new double[capacity];
+            yAxisValues = new double[capacity];
+        }
+        copyPoints(update.points.getXValues(), xAxisValues);
+        copyPoints(update.points.getYValues(), yAxisValues);
+        chart.updateXYSeries(series.getHeader().getId(), xAxisValues,
+                yAxisValues, null);
+
+        setAxesProperties(update.yAxisMin, update.yAxisMax);
+        updateRecessionBars();
+        repaint();
+    }
+
+    private static void copyPoints(double[] points, double[] buffer) {
+        System.arraycopy(points, 0, buffer, 0, points.length);
+        PlotPoints.padBuffer(buffer, points.length);
+    }
+
+    private void updateSeries() {
         prepareAxesLists();
         chart.updateXYSeries(series.getHeader().getId(), xAxisValues,
                 yAxisValues, null);
-        setAxesProperties();
 
         repaint();
     }
 
+    private void addZoomAndPan(XChartPanel<XYChart> chartPanel) {
+        MouseAdapter adapter = new MouseAdapter() {
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                double fraction = Math.max(0, Math.min(1, e.getX() / (double) getPlotWidth()));
+                long days = DAYS.between(startDate, endDate);
+                long newDays = Math.max(1, Math.round(days * Math.pow(ZOOM_FACTOR,
+                        e.getPreciseWheelRotation())));
+
+                LocalDate newStartDate = startDate.plusDays(Math.round((days - newDays) * fraction));
+                showRange(newStartDate, newStartDate.plusDays(newDays));
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragX = e.getX();
+                dragStartDate = startDate;
+                dragEndDate = endDate;
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragStartDate == null) return;
+
+                long days = DAYS.between(dragStartDate, dragEndDate);
+                long shift = Math.round((dragX - e.getX()) * days / (double) getPlotWidth());
+                showRange(dragStartDate.plusDays(shift), dragEndDate.plusDays(shift));
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                dragStartDate = null;
+            }
+        };
+
+        chartPanel.addMouseWheelListener(adapter);
+        chartPanel.addMouseListener(adapter);
+        chartPanel.addMouseMotionListener(adapter);
+    }
+
+    /**
+     * Shows the given range, moved or cut to fit the dates of the series,
+     * and notifies the range listener. Ranges with less than two observations
+     * are not shown.
+     */
+    private void showRange(LocalDate newStartDate, LocalDate newEndDate) {
+        LocalDate firstDate = series.getDate(0);
+        LocalDate lastDate = series.getDate(series.size() - 1);
+
+        if (newStartDate.isBefore(firstDate)) {
+            newEndDate = newEndDate.plusDays(DAYS.between(newStartDate, firstDate));
+            newStartDate = firstDate;
+        }
+        if (newEndDate.isAfter(lastDate)) {
+            newStartDate = newStartDate.minusDays(DAYS.between(lastDate, newEndDate));
+            newEndDate = lastDate;
+        }
+        if (newStartDate.isBefore(firstDate)) newStartDate = firstDate;
+
+        if (newStartDate.equals(startDate) && newEndDate.equals(endDate)) return;
+        if (series.getObservationList(newStartDate, newEndDate).size() < 2) return;
+
+        updateAxes(newStartDate, newEndDate);
+        if (rangeListener != null) rangeListener.accept(newStartDate, newEndDate);
+    }
+
     private XYChart createChart(Header header) {
         XYChart chart = new XYChartBuilder().title(header.getTitle())
                 .xAxisTitle("Date")
@@ -85,57 +308,91 @@ public class ChartFrame extends JFrame {
         return chart;
     }
 
+    /**
+     * Finds the visible range once and writes its points to buffers that are
+     * reused until the width of the plot changes. Xchart draws whole arrays,
+     * so the unused end of the buffers repeats the last point.
+     */
     private void prepareAxesLists() {
-        xAxisValues = new ArrayList<>();
-        yAxisValues = new ArrayList<>();
-        List<Observation> observationList = series.getObservationList(startDate, endDate);
-        for (Observation observation : observationList) {
-            xAxisValues.add((double) observation.getxMarker());
-            yAxisValues.add(observation.getValue().doubleValue());
+        fromIndex = series.indexOf(startDate.toEpochDay());
+        toIndex = series.indexOf(endDate.toEpochDay() + 1);
+        plotWidth = getPlotWidth();
+
+        DetailPyramid pyramid = series.getDetailPyramid();
+        int capacity = pyramid.getCapacity(plotWidth);
+        if (xAxisValues == null || xAxisValues.length != capacity) {
+            xAxisValues = new double[capacity];
+            yAxisValues = new double[capacity];
         }
+
+        int size = pyramid.getPoints(fromIndex, toIndex, plotWidth, xAxisValues, yAxisValues);
+        PlotPoints.padBuffer(xAxisValues, size);
+        PlotPoints.padBuffer(yAxisValues, size);
     }
 
-    private void addRecessionBars() {
-        Color g = Color.LIGHT_GRAY;
-        Color gray = new Color(g.getRed(), g.getGreen(), g.getBlue(), 100);
+    private int getPlotWidth() {
+        return chartPanel != null && chartPanel.getWidth() > 0
+                ? chartPanel.getWidth() : DEFAULT_PLOT_WIDTH;
+    }
 
-        List<XYAxesValues> axesValuesList = RECESSION_DATA.getAxesValuesList();
-        for (XYAxesValues axesValues : axesValuesList) {
-            chart.addSeries(axesValues.toString(),
-                    axesValues.getxValues(), axesValues.getyValues())
-                    .setXYSeriesRenderStyle(XYSeries.XYSeriesRenderStyle.Area)
-                    .setMarker(SeriesMarkers.NONE).setFillColor(gray);
-        }
+    private void addRecessionBars(RecessionData recessionData) {
+        this.recessionData = recessionData;
+        updateRecessionBars();
     }
 
-    private void setAxesProperties() {
-        List<Observation> observationList =
-                series.getObservationList(startDate, endDate);
-        long xAxisStart = observationList.get(0).getxMarker();
-        long xAxisEnd = observationList.get(observationList.size() - 1).getxMarker();
+    /**
+     * Replaces recession bars with bars of the recessions that intersect
+     * the visible range, cut to it. Recession data is shared by all charts,
+     * every chart keeps only the few bars it shows.
+     */
+    private void updateRecessionBars() {
+        if (recessionData == null) return;
+
+        for (int i = 0; i < recessionBarCount; i++) {
+            chart.removeSeries("recession-top-" + i);
+            chart.removeSeries("recession-bottom-" + i);
+        }
 
-        setAxesMinMax(xAxisStart, xAxisEnd);
-        setXAxisLabelOverrideMap(xAxisStart, xAxisEnd);
+        int xAxisStart = series.getEpochDay(fromIndex);
+        int xAxisEnd = series.getEpochDay(toIndex - 1);
+        recessionBarCount = 0;
+        for (int r = recessionData.indexOf(xAxisStart); r < recessionData.getRecessionCount()
+                && recessionData.getStartEpochDay(r) <= xAxisEnd; r++) {
+            double[] xValues = {Math.max(recessionData.getStartEpochDay(r), xAxisStart),
+                    Math.min(recessionData.getEndEpochDay(r), xAxisEnd)};
+
+            addRecessionBar("recession-top-" + recessionBarCount, xValues, RECESSION_BAR_HEIGHT);
+            addRecessionBar("recession-bottom-" + recessionBarCount, xValues, -RECESSION_BAR_HEIGHT);
+            recessionBarCount++;
+        }
+
+        repaint();
     }
 
-    private void setAxesMinMax(long xAxisStart, long xAxisEnd) {
-        double min = yAxisValues.get(0);
-        double max = yAxisValues.get(0);
+    private void addRecessionBar(String name, double[] xValues, double height) {
+        chart.addSeries(name, xValues, new double[]{height, height})
+                .setXYSeriesRenderStyle(XYSeries.XYSeriesRenderStyle.Area)
+                .setMarker(SeriesMarkers.NONE).setFillColor(RECESSION_COLOR);
+    }
 
-        for (Double yAxisValue : yAxisValues) {
-            if (min > yAxisValue) min = yAxisValue;
-            if (max < yAxisValue) max = yAxisValue;
-        }
+    private void setAxesProperties(double yAxisMin, double yAxisMax) {
+        long xAxisStart = series.getEpochDay(fromIndex);
+        long xAxisEnd = series.getEpochDay(toIndex - 1);
 
-        chart.getStyler().setYAxisMin(min);
-        chart.getStyler().setYAxisMax(max);
+        setAxesMinMax(xAxisStart, xAxisEnd, yAxisMin, yAxisMax);
+        setXAxisLabelOverrideMap(xAxisStart, xAxisEnd);
+    }
+
+    private void setAxesMinMax(long xAxisStart, long xAxisEnd, double yAxisMin, double yAxisMax) {
+        chart.getStyler().setYAxisMin(yAxisMin);
+        chart.getStyler().setYAxisMax(yAxisMax);
 
         chart.getStyler().setXAxisMin((double) xAxisStart);
         chart.getStyler().setXAxisMax((double) xAxisEnd);
     }
 
     private void setXAxisLabelOverrideMap(long xAxisStart, long xAxisEnd) {
-        Map<Double, Object> xMarkMap = new TreeMap<>();
+        xMarkMap.clear();
         DateTimeFormatter formatter = createDateTimeFormatter();
 
         int parts = 6;
@@ -154,7 +411,32 @@ public class ChartFrame extends JFrame {
     private DateTimeFormatter createDateTimeFormatter() {
         long years = YEARS.between(startDate, endDate);
 
-        return years > 0 ? DateTimeFormatter.ofPattern("uuuu-MM")
-                : DateTimeFormatter.ISO_LOCAL_DATE;
+        return years > 0 ? MONTH_FORMATTER : DateTimeFormatter.ISO_LOCAL_DATE;
+    }
+
+    /**
+     * Range of the chart computed in the background, ready to be shown.
+     */
+    public static final class AxesUpdate {
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final int fromIndex;
+        private final int toIndex;
+        private final int width;
+        private final PlotPoints points;
+        private final double yAxisMin;
+        private final double yAxisMax;
+
+        private AxesUpdate(LocalDate startDate, LocalDate endDate, int fromIndex, int toIndex,
+                           int width, PlotPoints points, double yAxisMin, double yAxisMax) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.width = width;
+            this.points = points;
+            this.yAxisMin = yAxisMin;
+            this.yAxisMax = yAxisMax;
+        }
     }
 }
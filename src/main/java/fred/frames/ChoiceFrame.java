@@ -1,8 +1,12 @@
 package fred.frames;
 
 import excel.ExcelWriter;
-import fred.enumeration.SeriesEnum;
+import fred.data.Observation;
 import fred.data.Series;
+import fred.enumeration.AggregationMethod;
+import fred.enumeration.Frequency;
+import fred.enumeration.SeriesEnum;
+import fred.enumeration.Units;
 import fred.function.TriFunction;
 import fred.gbc.GBC;
 import fred.network.FredConnection;
@@ -27,12 +31,29 @@ public class ChoiceFrame extends JFrame {
     private Map<SeriesEnum, Series> seriesMap;
     private static final int MAX_MAP_SIZE = 4;
 
+    /**
+     * Time in milliseconds the date combos have to stay unchanged
+     * before the data frames are updated.
+     */
+    private static final int UPDATE_DELAY = 150;
+
+    /**
+     * Numbers of observations averaged by the moving averages
+     * offered next to the units.
+     */
+    private static final int[] MOVING_AVERAGE_WINDOWS = {3, 6, 12};
+
     private JComboBox<SeriesEnum> seriesCombo;
     private JButton seriesButton;
 
     private JComboBox<LocalDate> startingDateCombo;
     private JComboBox<LocalDate> endingDateCombo;
 
+    private JComboBox<Object> frequencyCombo;
+    private JComboBox<AggregationMethod> aggregationCombo;
+
+    private JComboBox<Object> unitsCombo;
+
     private ChartFrame chartFrame;
     private JButton chartButton;
 
@@ -46,16 +67,35 @@ public class ChoiceFrame extends JFrame {
     private JPanel seriesPanel;
     private JProgressBar progressBar;
 
+    private Timer updateTimer;
+    private UpdateWorker updateWorker;
+    private int updateGeneration;
+
+    /**
+     * True while the date combos are set to the range of the chart,
+     * so that their listeners don't schedule another update of the chart.
+     */
+    private boolean isSyncingDateCombos;
+
+    /**
+     * True if the chart already shows the range selected by the date combos,
+     * because the user zoomed or panned it, so only the table is updated.
+     */
+    private boolean isChartRangeShown;
+
     public ChoiceFrame() {
         setMetalLookAndFeel();
 
         seriesMap = getLimitedSizeMap();
         fileChooser = getExcelFileChooser();
+        updateTimer = getUpdateTimer();
 
         setLayout(new GridBagLayout());
         add(getSeriesPanel(), getFrameGBC(0));
         add(getDatePanel(), getFrameGBC(1));
-        add(getButtonPanel(), getFrameGBC(2));
+        add(getFrequencyPanel(), getFrameGBC(2));
+        add(getUnitsPanel(), getFrameGBC(3));
+        add(getButtonPanel(), getFrameGBC(4));
 
         pack();
     }
@@ -78,6 +118,13 @@ public class ChoiceFrame extends JFrame {
         };
     }
 
+    private Timer getUpdateTimer() {
+        Timer updateTimer = new Timer(UPDATE_DELAY, event -> startUpdateWorker());
+        updateTimer.setRepeats(false);
+
+        return updateTimer;
+    }
+
     private JFileChooser getExcelFileChooser() {
         File desktopDir = FileSystemView.getFileSystemView().getHomeDirectory();
         JFileChooser fileChooser = new JFileChooser(desktopDir);
@@ -121,24 +168,27 @@ public class ChoiceFrame extends JFrame {
             }
         });
 
-        seriesCombo.addActionListener(event -> {
-            clearAllComponents();
-            if (isDataDownloaded()) {
-                setDataControlButtonsEnabled(true, "Downloaded");
-
-                prepareDateCombo(startingDateCombo, false);
-                prepareDateCombo(endingDateCombo, true);
-            } else {
-                setDataControlButtonsEnabled(false, "Download");
-            }
-        });
+        seriesCombo.addActionListener(event -> resetDataComponents());
 
         return seriesCombo;
     }
 
+    private void resetDataComponents() {
+        clearAllComponents();
+        if (isDataDownloaded()) {
+            setDataControlButtonsEnabled(true, "Downloaded");
+
+            prepareDateCombo(startingDateCombo, false);
+            prepareDateCombo(endingDateCombo, true);
+        } else {
+            setDataControlButtonsEnabled(false, "Download");
+        }
+    }
+
     private void clearAllComponents() {
+        cancelUpdate();
         if (chartFrame != null) {
-            chartFrame.setVisible(false);
+            chartFrame.dispose();
             chartFrame = null;
         }
         if (tableFrame != null) {
@@ -218,13 +268,113 @@ public class ChoiceFrame extends JFrame {
         return datePanel;
     }
 
-    private void addLabelAndComboToPanel(JPanel datePanel, String labelText,
-                                         JComboBox<LocalDate> dateCombo, int gridx) {
-        JLabel dateLabel = new JLabel(labelText);
-        dateLabel.setHorizontalAlignment(JLabel.RIGHT);
-        datePanel.add(dateLabel, getDateGBC(2 * gridx));
+    private JPanel getFrequencyPanel() {
+        JPanel frequencyPanel = new JPanel(new GridBagLayout());
+
+        frequencyCombo = new JComboBox<>();
+        frequencyCombo.addItem("As published");
+        for (Frequency frequency : Frequency.values())
+            frequencyCombo.addItem(frequency);
+        frequencyCombo.setRenderer(getLabelRenderer());
+
+        aggregationCombo = new JComboBox<>(AggregationMethod.values());
+        aggregationCombo.setRenderer(getLabelRenderer());
+        aggregationCombo.setEnabled(false);
+
+        frequencyCombo.addActionListener(event -> {
+            aggregationCombo.setEnabled(getSelectedFrequency() != null);
+            resetDataComponents();
+        });
+        aggregationCombo.addActionListener(event -> resetDataComponents());
+
+        addLabelAndComboToPanel(frequencyPanel, "Frequency: ", frequencyCombo, 0);
+        addLabelAndComboToPanel(frequencyPanel, "Aggregation: ", aggregationCombo, 1);
+
+        Border etchedBorder = BorderFactory.createEtchedBorder();
+        Border frequencyBorder = BorderFactory.createTitledBorder(etchedBorder,
+                "Frequency selection");
+        frequencyPanel.setBorder(frequencyBorder);
+
+        return frequencyPanel;
+    }
+
+    private JPanel getUnitsPanel() {
+        JPanel unitsPanel = new JPanel(new GridBagLayout());
 
-        datePanel.add(dateCombo, getDateGBC(2 * gridx + 1));
+        unitsCombo = new JComboBox<>();
+        for (Units units : Units.values())
+            unitsCombo.addItem(units);
+        for (int window : MOVING_AVERAGE_WINDOWS)
+            unitsCombo.addItem(window);
+        unitsCombo.setRenderer(getLabelRenderer());
+        unitsCombo.addActionListener(event -> resetDataComponents());
+
+        addLabelAndComboToPanel(unitsPanel, "Units: ", unitsCombo, 0);
+
+        Border etchedBorder = BorderFactory.createEtchedBorder();
+        Border unitsBorder = BorderFactory.createTitledBorder(etchedBorder,
+                "Units selection");
+        unitsPanel.setBorder(unitsBorder);
+
+        return unitsPanel;
+    }
+
+    private ListCellRenderer<Object> getLabelRenderer() {
+        return new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value,
+                                                          int index, boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                if (value instanceof Frequency)
+                    setText(((Frequency) value).getLabel());
+                else if (value instanceof AggregationMethod)
+                    setText(((AggregationMethod) value).getLabel());
+                else if (value instanceof Units)
+                    setText(((Units) value).getLabel());
+                else if (value instanceof Integer)
+                    setText("Moving Average (" + value + ")");
+
+                return this;
+            }
+        };
+    }
+
+    /**
+     * Returns frequency the selected series is aggregated to.
+     * @return frequency or null if the series is shown as published
+     */
+    private Frequency getSelectedFrequency() {
+        Object frequency = frequencyCombo.getSelectedItem();
+        return frequency instanceof Frequency ? (Frequency) frequency : null;
+    }
+
+    /**
+     * Returns downloaded series selected in the series combo, resampled locally
+     * to the selected frequency and then transformed to the selected units
+     * or moving average. Derived series are remembered by the series,
+     * so switching back and forth doesn't compute them again.
+     * @return series or null if it is not downloaded
+     */
+    private Series getSelectedSeries() {
+        Series series = seriesMap.get(getSelectedItem(seriesCombo));
+        if (series == null) return null;
+
+        Frequency frequency = getSelectedFrequency();
+        if (frequency != null)
+            series = series.resample(frequency, getSelectedItem(aggregationCombo));
+
+        Object units = unitsCombo.getSelectedItem();
+        if (units instanceof Integer) return series.movingAverage((Integer) units);
+        return series.transform((Units) units);
+    }
+
+    private void addLabelAndComboToPanel(JPanel panel, String labelText,
+                                         JComboBox<?> comboBox, int gridx) {
+        JLabel label = new JLabel(labelText);
+        label.setHorizontalAlignment(JLabel.RIGHT);
+        panel.add(label, getDateGBC(2 * gridx));
+
+        panel.add(comboBox, getDateGBC(2 * gridx + 1));
     }
 
     private JComboBox<LocalDate> getDateCombo() {
@@ -241,6 +391,7 @@ public class ChoiceFrame extends JFrame {
                     deselected = (LocalDate) event.getItem();
                     return;
                 }
+                if (isSyncingDateCombos) return;
 
                 if (!isDateChoiceValid()) {
                     dateCombo.removeItemListener(this);
@@ -263,14 +414,55 @@ public class ChoiceFrame extends JFrame {
         comboBox.removeAllItems();
     }
 
+    /**
+     * Schedules update of the data frames. Rapid changes of the date combos
+     * restart the timer, so that only the last of them is computed.
+     */
     private void updateDataFrames() {
+        isChartRangeShown = false;
+        updateTimer.restart();
+    }
+
+    /**
+     * Follows range the user zoomed or panned the chart to. Update in progress
+     * is cancelled, so that it doesn't move the chart back, date combos are set
+     * to the observations at both ends of the range and the table is updated
+     * the same way as after changes of the date combos.
+     */
+    private void followChartRange(LocalDate start, LocalDate end) {
+        cancelUpdate();
+
+        Series series = getSelectedSeries();
+        isSyncingDateCombos = true;
+        try {
+            startingDateCombo.setSelectedItem(series.getDate(series.indexOf(start.toEpochDay())));
+            endingDateCombo.setSelectedItem(series.getDate(series.indexOf(end.toEpochDay() + 1) - 1));
+        } finally {
+            isSyncingDateCombos = false;
+        }
+
+        isChartRangeShown = true;
+        updateTimer.restart();
+    }
+
+    private void startUpdateWorker() {
         LocalDate start = getSelectedItem(startingDateCombo);
         LocalDate end = getSelectedItem(endingDateCombo);
+        if (start == null || end == null) return;
+
+        ChartFrame chart = isChartRangeShown ? null : chartFrame;
+        if (chart == null && tableFrame == null) return;
 
-        if (chartFrame != null)
-            chartFrame.updateAxes(start, end);
-        if (tableFrame != null)
-            tableFrame.updateTable(start, end);
+        if (updateWorker != null) updateWorker.cancel(false);
+        updateWorker = new UpdateWorker(++updateGeneration, start, end, chart);
+        updateWorker.execute();
+    }
+
+    private void cancelUpdate() {
+        updateTimer.stop();
+        if (updateWorker != null) updateWorker.cancel(false);
+        updateWorker = null;
+        updateGeneration++;
     }
 
     private JPanel getButtonPanel() {
@@ -337,8 +529,7 @@ public class ChoiceFrame extends JFrame {
         LocalDate end = getSelectedItem(endingDateCombo);
 
         if (excelWriter == null) {
-            Series series = seriesMap.get(getSelectedItem(seriesCombo));
-            excelWriter = new ExcelWriter(series, start, end);
+            excelWriter = new ExcelWriter(getSelectedSeries(), start, end);
         } else {
             excelWriter.setStartDate(start);
             excelWriter.setEndDate(end);
@@ -362,6 +553,7 @@ public class ChoiceFrame extends JFrame {
 
     private ChartFrame getChartFrame() {
         ChartFrame chartFrame = getDataFrame(ChartFrame::new);
+        chartFrame.setRangeListener(this::followChartRange);
         setBounds(chartFrame, false);
 
         return chartFrame;
@@ -376,11 +568,10 @@ public class ChoiceFrame extends JFrame {
 
     private <R extends JFrame> R getDataFrame(
             TriFunction<Series, LocalDate, LocalDate, ? extends R> constructor) {
-        Series series = seriesMap.get(getSelectedItem(seriesCombo));
         LocalDate start = getSelectedItem(startingDateCombo);
         LocalDate end = getSelectedItem(endingDateCombo);
 
-        return constructor.apply(series, start, end);
+        return constructor.apply(getSelectedSeries(), start, end);
     }
 
     private void setBounds(JFrame dataFrame, boolean isBelowMainFrame) {
@@ -398,8 +589,7 @@ public class ChoiceFrame extends JFrame {
     }
 
     private void prepareDateCombo(JComboBox<LocalDate> dateCombo, boolean isEndCombo) {
-        SeriesEnum se = getSelectedItem(seriesCombo);
-        List<LocalDate> dateList = seriesMap.get(se).getDateList();
+        List<LocalDate> dateList = getSelectedSeries().getDateList();
 
         for (LocalDate localDate : dateList)
             dateCombo.addItem(localDate);
@@ -474,4 +664,55 @@ public class ChoiceFrame extends JFrame {
             }
         }
     }
+
+    /**
+     * Worker that computes range of the data frames in the background and
+     * applies it on the event dispatch thread, unless a newer range was
+     * requested in the meantime or the frames were replaced.
+     */
+    private class UpdateWorker extends SwingWorker<Void, Void> {
+        private final int generation;
+        private final LocalDate start;
+        private final LocalDate end;
+        private final ChartFrame chart;
+        private final TableFrame table;
+
+        private ChartFrame.AxesUpdate axesUpdate;
+        private List<Observation> observationList;
+
+        UpdateWorker(int generation, LocalDate start, LocalDate end, ChartFrame chart) {
+            this.generation = generation;
+            this.start = start;
+            this.end = end;
+            this.chart = chart;
+            this.table = tableFrame;
+        }
+
+        @Override
+        protected Void doInBackground() {
+            if (chart != null && !isCancelled())
+                axesUpdate = chart.computeAxesUpdate(start, end);
+            if (table != null && !isCancelled())
+                observationList = table.computeObservationList(start, end);
+
+            return null;
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled() || generation != updateGeneration) return;
+
+            try {
+                get();
+                if (chart != null && chart == chartFrame)
+                    chart.applyAxesUpdate(axesUpdate);
+                if (table != null && table == tableFrame)
+                    table.applyObservationList(observationList);
+            } catch (ExecutionException | InterruptedException e) {
+                e.printStackTrace();
+            } finally {
+                updateWorker = null;
+            }
+        }
+    }
 }
@@ -16,7 +16,7 @@ public class TableFrame extends JFrame {
 
     public TableFrame(Series series, LocalDate startDate, LocalDate endDate) {
         this.series = series;
-        observationList = getUpdatedObservationList(startDate, endDate);
+        observationList = computeObservationList(startDate, endDate);
 
         table = new JTable(new FedTableModel());
         table.setCellSelectionEnabled(true);
@@ -27,13 +27,28 @@ public class TableFrame extends JFrame {
         add(scrollPane, BorderLayout.CENTER);
     }
 
-    private List<Observation> getUpdatedObservationList(LocalDate startDate, LocalDate endDate) {
+    /**
+     * Returns observations of the given range. Unlike other methods,
+     * it may be called outside the event dispatch thread.
+     * @param startDate first date of the range
+     * @param endDate last date of the range
+     * @return list of observations to be shown with {@link #applyObservationList(List)}
+     */
+    public List<Observation> computeObservationList(LocalDate startDate, LocalDate endDate) {
         return series.getObservationList(startDate, endDate);
     }
 
+    /**
+     * Shows observations computed by {@link #computeObservationList(LocalDate, LocalDate)}.
+     * @param observationList list of observations
+     */
+    public void applyObservationList(List<Observation> observationList) {
+        this.observationList = observationList;
+        ((AbstractTableModel) table.getModel()).fireTableDataChanged();
+    }
+
     public void updateTable(LocalDate startDate, LocalDate endDate) {
-        observationList = getUpdatedObservationList(startDate, endDate);
-        table.updateUI();
+        applyObservationList(computeObservationList(startDate, endDate));
     }
 
     private class FedTableModel extends AbstractTableModel {
@@ -7,6 +7,9 @@ import java.awt.*;
 
 public class Main {
     public static void main(String[] args) {
+        if (System.getProperty("http.maxConnections") == null)
+            System.setProperty("http.maxConnections", "8");
+
         EventQueue.invokeLater(() -> {
             JFrame frame = new ChoiceFrame();
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
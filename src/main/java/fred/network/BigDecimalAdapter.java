@@ -0,0 +1,38 @@
+package fred.network;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Adapter that parses and formats BigDecimals. It additionally deals with
+ * Fed data problems.
+ */
+class BigDecimalAdapter extends TypeAdapter<BigDecimal> {
+    @Override
+    public void write(JsonWriter out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.value(value);
+    }
+
+    @Override
+    public BigDecimal read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        String number = in.nextString();
+        if (number.equals(".")) return null;
+
+        return new BigDecimal(number);
+    }
+}
@@ -1,25 +1,47 @@
 package fred.network;
 
-import com.google.gson.*;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonToken;
-import com.google.gson.stream.JsonWriter;
+import fred.data.EpochDays;
 import fred.data.Header;
-import fred.data.Observation;
 import fred.data.RecessionData;
 import fred.data.Series;
 
-import javax.swing.*;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.math.BigDecimal;
-import java.net.URL;
-import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.Period;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Scanner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Class that downloads data from Fed website
@@ -32,26 +54,389 @@ public class FredConnection {
     private static final Gson G = createGson();
 
     /**
-     * Api key required to download data using Fred API.
+     * Id of the series that indicates US recessions.
      */
-    private static final String API_KEY = getApiKey();
+    private static final String RECESSION_ID = "USREC";
 
     /**
-     * RecessionData object used to get data about all American recessions.
+     * System property that sets api key instead of the Key.txt file.
      */
-    public static final RecessionData RECESSION_DATA = getRecessionData();
+    public static final String API_KEY_PROPERTY = "fred.api.key";
+
+    /**
+     * Api key required to download data using Fred API, read on first use.
+     */
+    private static volatile String apiKey;
+
+    /**
+     * Default maximum number of requests sent to Fed at the same time.
+     */
+    private static final int DEFAULT_MAX_REQUESTS_IN_FLIGHT = 8;
+
+    /**
+     * Maximum number of observations Fed returns for a single request.
+     */
+    private static final int MAX_PAGE_SIZE = 100_000;
+
+    /**
+     * Maximum number of observations downloaded with a single request.
+     */
+    private static volatile int pageSize = 5_000;
+
+    /**
+     * Semaphore that limits number of requests sent to Fed at the same time.
+     */
+    private static volatile Semaphore requestPermits =
+            new Semaphore(DEFAULT_MAX_REQUESTS_IN_FLIGHT);
+
+    /**
+     * Executor used until another one is set, sized to the maximum
+     * number of requests in flight.
+     */
+    private static final ThreadPoolExecutor defaultExecutor =
+            createExecutor(DEFAULT_MAX_REQUESTS_IN_FLIGHT);
+
+    /**
+     * Executor that runs header and observation downloads.
+     */
+    private static volatile ExecutorService executor = defaultExecutor;
+
+    /**
+     * Transport used to send requests to Fed.
+     */
+    private static volatile Transport transport = new HttpTransport();
+
+    /**
+     * Cache downloaded series are kept in, or null if caching is disabled.
+     */
+    private static volatile SeriesCache cache = new SeriesCache();
+
+    /**
+     * Period before the last cached observation that is downloaded again
+     * during incremental refresh.
+     */
+    private static volatile Period revisionWindow = Period.ofYears(1);
+
+    /**
+     * Limiter that keeps rate of requests within Fred API limit.
+     */
+    private static volatile RateLimiter rateLimiter = new RateLimiter();
+
+    /**
+     * Policy used to retry requests that failed.
+     */
+    private static volatile RetryPolicy retryPolicy = new RetryPolicy();
+
+    /**
+     * Downloads that haven't finished yet, keyed by their queries.
+     */
+    private static final ConcurrentMap<SeriesQuery, CompletableFuture<Series>> downloadsInFlight =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Future of RecessionData object used to get data about all American recessions.
+     */
+    private static final AtomicReference<CompletableFuture<RecessionData>> recessionData =
+            new AtomicReference<>();
+
+    /**
+     * Listeners notified when recession data taken from the cache turns out
+     * to be out of date and is replaced with downloaded data.
+     */
+    private static final List<Consumer<RecessionData>> recessionDataListeners =
+            new CopyOnWriteArrayList<>();
 
     /**
      * Returns Series object that contains all data downloaded from Fed.
+     * Header and observations are downloaded concurrently.
      * @param id id of the series to be downloaded (i.e. GPD)
      * @return new Series
      * @throws IOException if operation fails
      */
     public static Series getSeries(String id) throws IOException {
-        Header header = getHeader(id);
-        List<Observation> observationList = getObservationList(id);
+        return getSeries(new SeriesQuery(id));
+    }
+
+    /**
+     * Returns Series object that contains observations requested by the query.
+     * Header and observations are downloaded concurrently.
+     * @param query query describing the requested observations
+     * @return new Series
+     * @throws IOException if operation fails
+     */
+    public static Series getSeries(SeriesQuery query) throws IOException {
+        try {
+            return getSeriesAsync(query).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Download of " + query.getId() + " was interrupted");
+        } catch (ExecutionException e) {
+            throw toIOException(e);
+        }
+    }
+
+    /**
+     * Starts downloading of the series in the background. Header and observations
+     * are downloaded concurrently.
+     * @param id id of the series to be downloaded (i.e. GPD)
+     * @return future completed with new Series
+     */
+    public static CompletableFuture<Series> getSeriesAsync(String id) {
+        return getSeriesAsync(new SeriesQuery(id));
+    }
+
+    /**
+     * Starts downloading of observations requested by the query in the background.
+     * Header and observations are downloaded concurrently. Callers that ask
+     * for the same query while it is being downloaded share that download.
+     * @param query query describing the requested observations
+     * @return future completed with new Series
+     */
+    public static CompletableFuture<Series> getSeriesAsync(SeriesQuery query) {
+        CompletableFuture<Series> download = new CompletableFuture<>();
+        CompletableFuture<Series> inFlight = downloadsInFlight.putIfAbsent(query, download);
+        if (inFlight == null) {
+            inFlight = download;
+            startDownload(query).whenComplete((series, e) -> {
+                downloadsInFlight.remove(query, download);
+                if (e != null) download.completeExceptionally(e);
+                else download.complete(series);
+            });
+        }
+
+        //every caller gets its own future, so that one of them can't cancel the others
+        return inFlight.thenApply(Function.identity());
+    }
+
+    /**
+     * Starts downloading of observations requested by the query, using cached
+     * series if it is still up to date.
+     * @param query query describing the requested observations
+     * @return future completed with new Series
+     */
+    private static CompletableFuture<Series> startDownload(SeriesQuery query) {
+        SeriesCache cache = FredConnection.cache;
+        String key = query.getCacheKey();
+        if (cache == null || !cache.contains(key)) {
+            CompletableFuture<Header> header = supplyAsync(() -> getHeader(query.getId()));
+            CompletableFuture<Series> observations = getObservationsAsync(query, null);
+
+            return header.thenCombine(observations, (h, series) -> series.withHeader(h))
+                    .thenApply(series -> storeInCache(cache, key, series));
+        }
+
+        return supplyAsync(() -> getHeader(query.getId()))
+                .thenCompose(header -> getUpToDateSeries(cache, query, header));
+    }
+
+    /**
+     * Returns cached series if it is still up to date. Otherwise downloads
+     * observations that were added since the last cached one, together with
+     * the revision window before it, or the whole series if its history changed.
+     * For aggregated queries the window starts with the first day of a period,
+     * so that no period is downloaded only partially.
+     * @param cache cache the series is stored in
+     * @param query query describing the requested observations
+     * @param header header that was just downloaded from Fed
+     * @return future completed with up to date Series
+     */
+    private static CompletableFuture<Series> getUpToDateSeries(SeriesCache cache, SeriesQuery query,
+                                                               Header header) {
+        String key = query.getCacheKey();
+        Series cached = loadFromCache(cache, key);
+        if (cached != null && isUpToDate(cached.getHeader(), header))
+            return CompletableFuture.completedFuture(cached.withHeader(header));
+
+        if (cached != null && canBeRefreshedIncrementally(cached, query, header)) {
+            LocalDate lastCachedDate = cached.getDate(cached.size() - 1);
+            LocalDate firstDate = lastCachedDate.minus(revisionWindow);
+            if (query.getFrequency() != null)
+                firstDate = EpochDays.toLocalDate(EpochDays.firstDayOfPeriod(
+                        EpochDays.of(firstDate), query.getFrequency()));
+            if (query.getObservationStart() != null &&
+                    firstDate.isBefore(query.getObservationStart()))
+                firstDate = query.getObservationStart();
+
+            LocalDate mergeDate = firstDate;
+            return getObservationsAsync(query, mergeDate)
+                .thenApply(newer -> storeInCache(cache, key,
+                        cached.merge(header, mergeDate, newer)));
+        }
+
+        return getObservationsAsync(query, null)
+                .thenApply(observations -> storeInCache(cache, key,
+                        observations.withHeader(header)));
+    }
+
+    /**
+     * Returns true if the cached series only lacks the most recent observations,
+     * i.e. it still starts where the series on Fed starts and the query
+     * is not limited to a closed date range.
+     * @param cached cached series
+     * @param query query describing the requested observations
+     * @param current header that was just downloaded from Fed
+     * @return true if only recent observations have to be downloaded
+     */
+    private static boolean canBeRefreshedIncrementally(Series cached, SeriesQuery query,
+                                                       Header current) {
+        return query.getObservationEnd() == null &&
+                cached.size() > 0 &&
+                cached.getHeader().getObservation_start().equals(current.getObservation_start()) &&
+                !cached.getHeader().getObservation_end().isAfter(current.getObservation_end());
+    }
+
+    /**
+     * Returns true if nothing changed in the series since the cached header
+     * was downloaded.
+     * @param cached header of the cached series
+     * @param current header that was just downloaded from Fed
+     * @return true if cached observations can be reused
+     */
+    private static boolean isUpToDate(Header cached, Header current) {
+        return cached.getObservation_start().equals(current.getObservation_start()) &&
+                cached.getObservation_end().equals(current.getObservation_end()) &&
+                Objects.equals(cached.getLast_updated(), current.getLast_updated());
+    }
+
+    private static Series loadFromCache(SeriesCache cache, String key) {
+        try {
+            return cache.load(key);
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static Series storeInCache(SeriesCache cache, String key, Series series) {
+        if (cache == null) return series;
+
+        try {
+            cache.store(key, series);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return series;
+    }
+
+    /**
+     * Starts downloading of all given series. Downloads run concurrently
+     * on the executor set with {@link #setExecutor(ExecutorService)},
+     * and no more requests than allowed by
+     * {@link #setMaxRequestsInFlight(int)} are sent at the same time.
+     * @param ids ids of the series to be downloaded
+     * @return batch that hands out the series as they finish
+     */
+    public static SeriesBatch getSeries(Collection<String> ids) {
+        Map<String, CompletableFuture<Series>> futureMap = new LinkedHashMap<>();
+        for (String id : ids)
+            futureMap.computeIfAbsent(id, FredConnection::getSeriesAsync);
+
+        return new SeriesBatch(futureMap);
+    }
+
+    /**
+     * Sets executor that runs downloads. The previous executor is not shut down.
+     * Unlike the default executor, the given one is not resized by
+     * {@link #setMaxRequestsInFlight(int)}, so it should have enough threads
+     * for the requests allowed in flight.
+     * @param executor new executor
+     */
+    public static void setExecutor(ExecutorService executor) {
+        FredConnection.executor = Objects.requireNonNull(executor,
+                "Executor must not be null");
+    }
+
+    /**
+     * Sets api key used in connection instead of the one read from Key.txt.
+     * @param apiKey new api key
+     */
+    public static void setApiKey(String apiKey) {
+        FredConnection.apiKey = Objects.requireNonNull(apiKey, "Api key must not be null");
+    }
+
+    /**
+     * Sets transport used to send requests to Fed, i.e. {@link HttpTransport}
+     * with custom base URL or timeouts.
+     * @param transport new transport
+     */
+    public static void setTransport(Transport transport) {
+        FredConnection.transport = Objects.requireNonNull(transport,
+                "Transport must not be null");
+    }
+
+    /**
+     * Sets cache downloaded series are kept in. Cached series is reused as long as
+     * its header reports the same observation range and last update time as Fed.
+     * @param cache new cache or null to disable caching
+     */
+    public static void setCache(SeriesCache cache) {
+        FredConnection.cache = cache;
+    }
+
+    /**
+     * Sets period before the last cached observation that is downloaded again
+     * during incremental refresh, so that recent revisions are picked up.
+     * @param revisionWindow period of observations downloaded again
+     */
+    public static void setRevisionWindow(Period revisionWindow) {
+        Objects.requireNonNull(revisionWindow, "Revision window must not be null");
+        if (revisionWindow.isNegative())
+            throw new IllegalArgumentException("Revision window must not be negative");
+
+        FredConnection.revisionWindow = revisionWindow;
+    }
+
+    /**
+     * Sets limiter that keeps rate of requests within Fred API limit.
+     * @param rateLimiter new rate limiter
+     */
+    public static void setRateLimiter(RateLimiter rateLimiter) {
+        FredConnection.rateLimiter = Objects.requireNonNull(rateLimiter,
+                "Rate limiter must not be null");
+    }
+
+    /**
+     * Sets policy used to retry requests that failed.
+     * @param retryPolicy new retry policy
+     */
+    public static void setRetryPolicy(RetryPolicy retryPolicy) {
+        FredConnection.retryPolicy = Objects.requireNonNull(retryPolicy,
+                "Retry policy must not be null");
+    }
 
-        return new Series(header, observationList);
+    /**
+     * Sets maximum number of observations downloaded with a single request.
+     * Series with more observations are downloaded in pages, in parallel.
+     * @param pageSize maximum number of observations in a page (at most 100000)
+     */
+    public static void setPageSize(int pageSize) {
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException(
+                    "Page size must be between 1 and " + MAX_PAGE_SIZE);
+
+        FredConnection.pageSize = pageSize;
+    }
+
+    /**
+     * Sets maximum number of requests sent to Fed at the same time.
+     * The default executor is resized to the same number of threads,
+     * an executor set with {@link #setExecutor(ExecutorService)} is left as it is.
+     * @param maxRequestsInFlight maximum number of concurrent requests
+     */
+    public static synchronized void setMaxRequestsInFlight(int maxRequestsInFlight) {
+        if (maxRequestsInFlight <= 0)
+            throw new IllegalArgumentException(
+                    "Maximum number of requests must be positive");
+
+        if (maxRequestsInFlight > defaultExecutor.getMaximumPoolSize()) {
+            defaultExecutor.setMaximumPoolSize(maxRequestsInFlight);
+            defaultExecutor.setCorePoolSize(maxRequestsInFlight);
+        } else {
+            defaultExecutor.setCorePoolSize(maxRequestsInFlight);
+            defaultExecutor.setMaximumPoolSize(maxRequestsInFlight);
+        }
+        requestPermits = new Semaphore(maxRequestsInFlight);
     }
 
     /**
@@ -62,70 +447,250 @@ public class FredConnection {
      * @throws IOException if operation fails
      */
     private static Header getHeader(String id) throws IOException {
-        String spec = "https://api.stlouisfed.org/fred/series?series_id=" +
-                id + "&api_key=" + FredConnection.API_KEY + "&file_type=json";
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("series_id", id);
+
+        return downloadData("series", parameters, in -> {
+            ObservationReader.seekMember(in, "seriess");
+            in.beginArray();
+            return G.fromJson(in, Header.class);
+        });
+    }
 
-        JsonObject jsonHeader = downloadData(spec, "seriess")
-                .get(0).getAsJsonObject();
-        return G.fromJson(jsonHeader, Header.class);
+    /**
+     * Starts downloading of observations requested by the query. Long series are
+     * downloaded in pages of {@link #setPageSize(int)} observations: the first page
+     * reports the total count, the remaining pages are downloaded in parallel
+     * and then joined in date order.
+     * @param query query describing the requested observations
+     * @param firstDate date of the first observation that overrides
+     *        observation start of the query, or null
+     * @return future completed with series of observations without header
+     */
+    private static CompletableFuture<Series> getObservationsAsync(
+            SeriesQuery query, LocalDate firstDate) {
+        int limit = pageSize;
+
+        return supplyAsync(() -> getObservationPage(query, firstDate, 0, limit))
+                .thenCompose(firstPage -> {
+                    if (firstPage.count <= limit)
+                        return CompletableFuture.completedFuture(firstPage.observations);
+
+                    List<CompletableFuture<ObservationPage>> pageList = new ArrayList<>();
+                    pageList.add(CompletableFuture.completedFuture(firstPage));
+                    for (int offset = limit; offset < firstPage.count; offset += limit) {
+                        int pageOffset = offset;
+                        pageList.add(supplyAsync(() ->
+                                getObservationPage(query, firstDate, pageOffset, limit)));
+                    }
+
+                    return CompletableFuture.allOf(pageList.toArray(new CompletableFuture<?>[0]))
+                            .thenApply(done -> joinPages(pageList));
+                });
     }
 
     /**
-     * Returns list of Observation objects that were created by deserialization
-     * of data from Fed website.
-     * @param id id of the series to be downloaded (i.e. GPD)
-     * @return list of observations
-     * @throws IOException if operation fails
+     * Joins pages of observations in the order they were requested. Observations
+     * that are not after the last already joined one are skipped, in case
+     * the series was updated between requests.
+     * @param pageList completed pages
+     * @return series of observations sorted in ascending order, without header
      */
-    private static List<Observation> getObservationList(String id) throws IOException {
-        String spec = "https://api.stlouisfed.org/fred/series/" +
-                "observations?series_id=" + id +
-                "&api_key=" + FredConnection.API_KEY + "&file_type=json";
+    private static Series joinPages(List<CompletableFuture<ObservationPage>> pageList) {
+        Series.Builder builder = new Series.Builder();
+        for (CompletableFuture<ObservationPage> page : pageList) {
+            Series observations = page.join().observations;
+
+            int start = 0;
+            if (builder.size() > 0) {
+                int lastEpochDay = builder.getLastEpochDay();
+                while (start < observations.size() &&
+                        observations.getEpochDay(start) <= lastEpochDay)
+                    start++;
+            }
+            builder.addAll(observations, start, observations.size());
+        }
 
-        List<Observation> observationList = new ArrayList<>();
-        JsonArray jsonObs = downloadData(spec, "observations");
+        return builder.build();
+    }
 
-        for (JsonElement element : jsonObs)
-            addDataToObservationList(observationList, element);
+    /**
+     * Returns one page of observations requested by the query.
+     * @param query query describing the requested observations
+     * @param firstDate date of the first observation that overrides
+     *        observation start of the query, or null
+     * @param offset number of observations that come before the page
+     * @param limit maximum number of observations in the page
+     * @return page of observations
+     * @throws IOException if operation fails
+     */
+    private static ObservationPage getObservationPage(SeriesQuery query, LocalDate firstDate,
+                                                      int offset, int limit) throws IOException {
+        Map<String, String> parameters = query.toParameters(firstDate);
+        parameters.put("offset", String.valueOf(offset));
+        parameters.put("limit", String.valueOf(limit));
+
+        return downloadData("series/observations", parameters, in -> {
+            Series.Builder builder = new Series.Builder();
+            int count = ObservationReader.readObservationPage(in, builder);
+            return new ObservationPage(count, builder.build());
+        });
+    }
 
-        return observationList;
+    /**
+     * Downloads data from the specified endpoint and reads it
+     * directly from the response stream.
+     * @param path path of the endpoint relative to the API root
+     * @param parameters query parameters of the request, without api key and file type
+     * @param responseReader function that reads the response
+     * @param <T> type of the value read
+     * @return value returned by responseReader
+     * @throws IOException if downloading fails
+     */
+    private static <T> T downloadData(String path, Map<String, String> parameters,
+                                      ResponseReader<T> responseReader)
+            throws IOException {
+        Map<String, String> requestParameters = new LinkedHashMap<>(parameters);
+        requestParameters.put("api_key", getApiKey());
+        requestParameters.put("file_type", "json");
+
+        RetryPolicy policy = retryPolicy;
+        for (int retry = 0; ; retry++) {
+            try {
+                return sendRequest(path, requestParameters, responseReader);
+            } catch (IOException e) {
+                if (retry >= policy.getMaxRetries() || !policy.isRetryable(e)) throw e;
+
+                try {
+                    Thread.sleep(policy.getDelayMillis(retry, e));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for retry");
+                }
+            }
+        }
     }
 
-    private static void addDataToObservationList(List<Observation> observationList,
-                                          JsonElement dataSourceElement) {
-        if (dataSourceElement.isJsonObject()) {
-            JsonObject object = dataSourceElement.getAsJsonObject();
+    /**
+     * Sends single request once the rate limiter and the limit of requests
+     * in flight allow it, and reads the response.
+     * @param path path of the endpoint relative to the API root
+     * @param parameters query parameters of the request
+     * @param responseReader function that reads the response
+     * @param <T> type of the value read
+     * @return value returned by responseReader
+     * @throws IOException if downloading fails
+     */
+    private static <T> T sendRequest(String path, Map<String, String> parameters,
+                                     ResponseReader<T> responseReader) throws IOException {
+        Semaphore permits = requestPermits;
+        try {
+            rateLimiter.acquire();
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for connection");
+        }
 
-            LocalDate date = G.fromJson(object.get("date"), LocalDate.class);
-            BigDecimal value = G.fromJson(object.get("value"), BigDecimal.class);
+        try {
+            InputStream body = transport.get(path, parameters);
 
-            if (value != null) observationList.add(new Observation(date, value));
+            try (JsonReader in = new JsonReader(new InputStreamReader(
+                    body, StandardCharsets.UTF_8))) {
+                return responseReader.read(in);
+            }
+        } finally {
+            permits.release();
         }
     }
 
     /**
-     * Downloads data from the specified location and returns it as JsonArray.
-     * @param spec string representation of the URL data is downloaded from
-     * @param memberName name of the member that is being requested
-     * @return JsonArray
-     * @throws IOException if downloading fails
+     * Runs the supplier on the download executor.
+     * @param supplier supplier that may fail with an IOException
+     * @param <T> type of the supplied value
+     * @return future completed with the supplied value
      */
-    private static JsonArray downloadData(String spec, String memberName) throws IOException {
-        URLConnection connection = new URL(spec).openConnection();
+    private static <T> CompletableFuture<T> supplyAsync(IOSupplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) return;
 
-        try (Scanner in = new Scanner(connection.getInputStream())) {
-            return streamToJsonArray(in, memberName);
+                try {
+                    future.complete(supplier.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
         }
+
+        return future;
+    }
+
+    /**
+     * Unwraps failure of an asynchronous download.
+     * @param e exception thrown by the future
+     * @return IOException that caused the failure
+     */
+    static IOException toIOException(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null)
+            cause = cause.getCause();
+
+        if (cause instanceof IOException) return (IOException) cause;
+        if (cause instanceof CancellationException)
+            return new InterruptedIOException("Download was cancelled");
+        return new IOException(cause);
     }
 
-    private static JsonArray streamToJsonArray(Scanner input, String memberName) {
-        StringBuilder builder = new StringBuilder();
-        while (input.hasNextLine())
-            builder.append(input.nextLine());
+    /**
+     * Creates executor with bounded number of daemon threads.
+     * @param threads number of threads
+     * @return new executor
+     */
+    private static ThreadPoolExecutor createExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable,
+                    "fred-download-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Supplier that may fail with an IOException.
+     * @param <T> type of the supplied value
+     */
+    @FunctionalInterface
+    private interface IOSupplier<T> {
+        T get() throws IOException;
+    }
 
-        String stringToParse = builder.toString();
-        return new JsonParser().parse(stringToParse).getAsJsonObject()
-                .get(memberName).getAsJsonArray();
+    /**
+     * Function that reads value from the response stream.
+     * @param <T> type of the value read
+     */
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(JsonReader in) throws IOException;
+    }
+
+    /**
+     * Page of observations together with the total number of observations.
+     */
+    private static final class ObservationPage {
+        private final int count;
+        private final Series observations;
+
+        private ObservationPage(int count, Series observations) {
+            this.count = count;
+            this.observations = observations;
+        }
     }
 
     /**
@@ -140,118 +705,123 @@ public class FredConnection {
     }
 
     /**
-     * Returns api key used in connection.
+     * Returns api key used in connection. Unless it was set explicitly, the key
+     * is taken from the {@value #API_KEY_PROPERTY} system property or read
+     * from the classpath when the first request is sent.
      * @return api key
+     * @throws IOException if the key can't be read
      */
-    private static String getApiKey() {
-        String apiKey;
-        InputStream stream = FredConnection.class.getResourceAsStream("/Key.txt");
-        try (Scanner fileScanner = new Scanner(stream, "UTF-8")) {
-            apiKey = fileScanner.nextLine();
-        }
-
-        return apiKey;
-    }
-
-    /**
-     * Returns RecessionData object that contains data about all US recessions.
-     * @return RecessionData object
-     */
-    private static RecessionData getRecessionData() {
-        try {
-            Header recessionHeader = getHeader("USREC");
-            List<Observation> recessionObservations =
-                    getObservationList("USREC");
+    private static String getApiKey() throws IOException {
+        String key = apiKey;
+        if (key != null) return key;
 
-            List<Series> recessionList = new ArrayList<>();
-            List<Observation> observationList = new ArrayList<>();
+        synchronized (FredConnection.class) {
+            if (apiKey != null) return apiKey;
 
-            boolean isPreviousDateARecession = false;
-            for (int i = 1; i < recessionObservations.size(); i++) {
-                Observation obs = recessionObservations.get(i);
-                BigDecimal value = obs.getValue();
+            String propertyKey = System.getProperty(API_KEY_PROPERTY);
+            if (propertyKey != null) return apiKey = propertyKey;
 
-                if (value.compareTo(BigDecimal.ONE) == 0) {
-                    if (!isPreviousDateARecession) {
-                        observationList = new ArrayList<>();
-                        observationList.add(recessionObservations.get(i - 1));
+            InputStream stream = FredConnection.class.getResourceAsStream("/Key.txt");
+            if (stream == null) throw new FileNotFoundException("Api key file /Key.txt not found");
 
-                        isPreviousDateARecession = true;
-                    }
-                    observationList.add(obs);
-                }
-                else if (value.compareTo(BigDecimal.ZERO) == 0 && isPreviousDateARecession) {
-                    recessionList.add(new Series(recessionHeader, observationList));
-                    isPreviousDateARecession = false;
-                }
+            try (Scanner fileScanner = new Scanner(stream, "UTF-8")) {
+                if (!fileScanner.hasNextLine()) throw new IOException("Api key file is empty");
+                apiKey = fileScanner.nextLine().trim();
             }
 
-            return new RecessionData(recessionList);
-        } catch (IOException e) {
-            e.printStackTrace();
-
-            int answer = JOptionPane.showConfirmDialog(null,
-                     "Recession data downloading failed. Do you want to try to download it again?",
-                     "Network error", JOptionPane.YES_NO_OPTION, JOptionPane.ERROR_MESSAGE);
-
-            if (answer == 0) return getRecessionData();
+            return apiKey;
         }
-
-        return null;
     }
-}
-
-/**
- * Adapter that parses and formats LocalDate objects.
- */
-class LocalDateAdapter extends TypeAdapter<LocalDate> {
-    @Override
-    public void write(JsonWriter out, LocalDate value) throws IOException {
-        if (value == null) {
-            out.nullValue();
-            return;
-        }
 
-        String formattedLocalDate = DateTimeFormatter.ISO_LOCAL_DATE.format(value);
-        out.value(formattedLocalDate);
+    /**
+     * Returns future of RecessionData object that contains data about all US recessions.
+     * Data is taken from the series cache when it is available, so that
+     * the future completes without waiting for the network; the cache is then
+     * refreshed in the background and, if Fed reports different recessions,
+     * listeners added with {@link #addRecessionDataListener(Consumer)} get
+     * the new data. If the previous attempt failed, downloading is started again.
+     * @return future completed with RecessionData object
+     */
+    public static CompletableFuture<RecessionData> getRecessionData() {
+        CompletableFuture<RecessionData> current = recessionData.get();
+        if (current != null && !current.isCompletedExceptionally()) return current;
+
+        CompletableFuture<RecessionData> loading = new CompletableFuture<>();
+        if (!recessionData.compareAndSet(current, loading)) return recessionData.get();
+
+        SeriesCache cache = FredConnection.cache;
+        CompletableFuture<Series> cached = cache == null ?
+                CompletableFuture.completedFuture(null) :
+                supplyAsync(() -> cache.load(RECESSION_ID));
+
+        cached.whenComplete((series, e) -> {
+            if (series != null) loading.complete(createRecessionData(series));
+
+            getSeriesAsync(RECESSION_ID).whenComplete((downloaded, downloadException) -> {
+                if (downloadException != null)
+                    loading.completeExceptionally(downloadException);
+                else if (series == null)
+                    loading.complete(createRecessionData(downloaded));
+                else if (downloaded.getFingerprint() != series.getFingerprint())
+                    replaceRecessionData(loading, createRecessionData(downloaded));
+            });
+        });
+
+        return loading;
     }
 
-    @Override
-    public LocalDate read(JsonReader in) throws IOException {
-        if (in.peek() == JsonToken.NULL) {
-            in.nextNull();
-            return null;
-        }
+    /**
+     * Adds listener that is notified, on a download thread, when recession data
+     * handed out from the cache is replaced with newer data.
+     * @param listener listener that accepts the new recession data
+     */
+    public static void addRecessionDataListener(Consumer<RecessionData> listener) {
+        recessionDataListeners.add(Objects.requireNonNull(listener,
+                "Listener must not be null"));
+    }
 
-        return LocalDate.parse(in.nextString());
+    /**
+     * Removes listener added with {@link #addRecessionDataListener(Consumer)}.
+     * @param listener listener to be removed
+     */
+    public static void removeRecessionDataListener(Consumer<RecessionData> listener) {
+        recessionDataListeners.remove(listener);
     }
-}
 
-/**
- * Adapter that parses and formats BigDecimals. It additionally deals with
- * Fed data problems.
- */
-class BigDecimalAdapter extends TypeAdapter<BigDecimal> {
-    @Override
-    public void write(JsonWriter out, BigDecimal value) throws IOException {
-        if (value == null) {
-            out.nullValue();
+    private static void replaceRecessionData(CompletableFuture<RecessionData> stale,
+                                             RecessionData fresh) {
+        if (!recessionData.compareAndSet(stale, CompletableFuture.completedFuture(fresh)))
             return;
-        }
 
-        out.value(value);
+        for (Consumer<RecessionData> listener : recessionDataListeners)
+            listener.accept(fresh);
     }
 
-    @Override
-    public BigDecimal read(JsonReader in) throws IOException {
-        if (in.peek() == JsonToken.NULL) {
-            in.nextNull();
-            return null;
-        }
+    /**
+     * Creates RecessionData object out of the series that indicates recessions.
+     * @param recessionSeries series in which 1 marks a recession and 0 an expansion
+     * @return RecessionData object
+     */
+    private static RecessionData createRecessionData(Series recessionSeries) {
+        int[] startEpochDays = new int[recessionSeries.size() / 2];
+        int[] endEpochDays = new int[startEpochDays.length];
+        int count = 0;
+
+        int recessionStart = -1;
+        for (int i = 1; i < recessionSeries.size(); i++) {
+            double value = recessionSeries.getValue(i);
 
-        String number = in.nextString();
-        if (number.equals(".")) return null;
+            if (value == 1) {
+                if (recessionStart < 0) recessionStart = i - 1;
+            }
+            else if (value == 0 && recessionStart >= 0) {
+                startEpochDays[count] = recessionSeries.getEpochDay(recessionStart);
+                endEpochDays[count++] = recessionSeries.getEpochDay(i - 1);
+                recessionStart = -1;
+            }
+        }
 
-        return new BigDecimal(number);
+        return new RecessionData(Arrays.copyOf(startEpochDays, count),
+                Arrays.copyOf(endEpochDays, count));
     }
 }
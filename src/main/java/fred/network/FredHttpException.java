@@ -0,0 +1,53 @@
+package fred.network;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when Fed responds with an error status.
+ */
+public class FredHttpException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final long retryAfterMillis;
+
+    /**
+     * Creates new {@code FredHttpException} object.
+     * @param statusCode HTTP status code of the response
+     * @param message message describing the error
+     */
+    public FredHttpException(int statusCode, String message) {
+        this(statusCode, message, -1);
+    }
+
+    /**
+     * Creates new {@code FredHttpException} object for response
+     * that told when the request may be sent again.
+     * @param statusCode HTTP status code of the response
+     * @param message message describing the error
+     * @param retryAfterMillis time to wait before the request is sent again
+     *        in milliseconds, or -1 if the response didn't say
+     */
+    public FredHttpException(int statusCode, String message, long retryAfterMillis) {
+        super("HTTP " + statusCode + ": " + message);
+        this.statusCode = statusCode;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * Returns HTTP status code of the response.
+     * @return status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns time to wait before the request is sent again,
+     * as given by Retry-After header of the response.
+     * @return time in milliseconds or -1 if the response didn't say
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
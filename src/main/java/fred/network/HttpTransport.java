@@ -0,0 +1,199 @@
+package fred.network;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Transport that sends requests over HTTP(S). It asks for gzip-compressed
+ * responses and returns every connection to the JDK keep-alive pool,
+ * so that consecutive requests to Fed reuse already established connections.
+ * The JDK keeps only 5 idle connections per host by default; applications
+ * that send more concurrent requests should raise the
+ * {@code http.maxConnections} system property before the first request.
+ */
+public class HttpTransport implements Transport {
+    /**
+     * Root of Fred API.
+     */
+    public static final String DEFAULT_BASE_URL = "https://api.stlouisfed.org/fred/";
+
+    /**
+     * System property that overrides root of the API used by default,
+     * i.e. to point the application at a local stand-in server.
+     */
+    public static final String BASE_URL_PROPERTY = "fred.api.url";
+
+    /**
+     * Default connect timeout in milliseconds.
+     */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10_000;
+
+    /**
+     * Default read timeout in milliseconds.
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 60_000;
+
+    /**
+     * Maximum number of bytes read from an unfinished response in order to
+     * keep its connection alive. Larger leftovers close the connection instead.
+     */
+    private static final int MAX_DRAINED_BYTES = 64 * 1024;
+
+    private final String baseUrl;
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    /**
+     * Creates new {@code HttpTransport} object that connects with default timeouts
+     * to Fred API, or to the URL given by the {@value #BASE_URL_PROPERTY}
+     * system property if it is set.
+     */
+    public HttpTransport() {
+        this(System.getProperty(BASE_URL_PROPERTY, DEFAULT_BASE_URL),
+                DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Creates new {@code HttpTransport} object.
+     * @param baseUrl root of the API, i.e. https://api.stlouisfed.org/fred/
+     * @param connectTimeout connect timeout in milliseconds (0 means infinite)
+     * @param readTimeout read timeout in milliseconds (0 means infinite)
+     */
+    public HttpTransport(String baseUrl, int connectTimeout, int readTimeout) {
+        Objects.requireNonNull(baseUrl, "Base URL must not be null");
+        if (connectTimeout < 0 || readTimeout < 0)
+            throw new IllegalArgumentException("Timeouts must not be negative");
+
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Returns root of the API requests are sent to.
+     * @return base URL
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public InputStream get(String path, Map<String, String> parameters) throws IOException {
+        URL url = new URL(baseUrl + path + toQueryString(parameters));
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        connection.setRequestProperty("Connection", "keep-alive");
+
+        int statusCode = connection.getResponseCode();
+        if (statusCode >= HttpURLConnection.HTTP_BAD_REQUEST)
+            throw new FredHttpException(statusCode, readErrorMessage(connection),
+                    parseRetryAfter(connection.getHeaderField("Retry-After")));
+
+        InputStream body = new KeepAliveInputStream(connection.getInputStream());
+        return isGzipped(connection) ? new GZIPInputStream(body, 8192) : body;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpTransport{" +
+                "baseUrl='" + baseUrl + '\'' +
+                ", connectTimeout=" + connectTimeout +
+                ", readTimeout=" + readTimeout +
+                '}';
+    }
+
+    private static boolean isGzipped(HttpURLConnection connection) {
+        return "gzip".equalsIgnoreCase(connection.getContentEncoding());
+    }
+
+    private static String toQueryString(Map<String, String> parameters)
+            throws UnsupportedEncodingException {
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            query.append(query.length() == 0 ? '?' : '&')
+                    .append(URLEncoder.encode(parameter.getKey(), "UTF-8"))
+                    .append('=')
+                    .append(URLEncoder.encode(parameter.getValue(), "UTF-8"));
+        }
+
+        return query.toString();
+    }
+
+    /**
+     * Returns time to wait given by Retry-After header, either as number
+     * of seconds or as HTTP date.
+     * @param retryAfter value of the header or null
+     * @return time in milliseconds or -1 if the header is missing or malformed
+     */
+    static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) return -1;
+
+        retryAfter = retryAfter.trim();
+        try {
+            if (!retryAfter.isEmpty() && retryAfter.chars().allMatch(Character::isDigit))
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter));
+
+            ZonedDateTime date = ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads the whole error response, so that its connection can be reused.
+     * @param connection connection that failed
+     * @return body of the error response or response message if there is no body
+     */
+    private static String readErrorMessage(HttpURLConnection connection) throws IOException {
+        InputStream errorStream = connection.getErrorStream();
+        if (errorStream == null) return connection.getResponseMessage();
+
+        if (isGzipped(connection)) errorStream = new GZIPInputStream(errorStream);
+        try (Scanner in = new Scanner(errorStream, StandardCharsets.UTF_8.name())) {
+            in.useDelimiter("\\A");
+            return in.hasNext() ? in.next() : connection.getResponseMessage();
+        }
+    }
+
+    /**
+     * Stream that reads the rest of the response before it is closed.
+     * Connection whose response wasn't read to the end can't be kept alive.
+     */
+    private static final class KeepAliveInputStream extends FilterInputStream {
+        private KeepAliveInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                byte[] buffer = new byte[8192];
+                int drained = 0;
+                int read;
+                while (drained < MAX_DRAINED_BYTES && (read = in.read(buffer)) != -1)
+                    drained += read;
+            } catch (IOException ignored) {
+                //connection is dropped instead of being reused
+            } finally {
+                super.close();
+            }
+        }
+    }
+}
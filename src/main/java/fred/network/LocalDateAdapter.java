@@ -0,0 +1,36 @@
+package fred.network;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Adapter that parses and formats LocalDate objects.
+ */
+class LocalDateAdapter extends TypeAdapter<LocalDate> {
+    @Override
+    public void write(JsonWriter out, LocalDate value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        String formattedLocalDate = DateTimeFormatter.ISO_LOCAL_DATE.format(value);
+        out.value(formattedLocalDate);
+    }
+
+    @Override
+    public LocalDate read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return LocalDate.parse(in.nextString());
+    }
+}
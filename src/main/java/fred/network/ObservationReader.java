@@ -0,0 +1,155 @@
+package fred.network;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import fred.data.EpochDays;
+import fred.data.ScaledDecimal;
+import fred.data.Series;
+
+import java.io.IOException;
+
+/**
+ * Class that reads Fed responses token by token, without building
+ * a JSON tree or buffering the whole document as a String.
+ */
+final class ObservationReader {
+    private ObservationReader() {
+    }
+
+    /**
+     * Moves the reader to the value of the top-level member with the given name.
+     * Members that come before it are skipped without being materialized.
+     * @param in reader positioned at the beginning of the document
+     * @param memberName name of the member that is being requested
+     * @throws IOException if reading fails or the member is missing
+     */
+    static void seekMember(JsonReader in, String memberName) throws IOException {
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals(memberName)) return;
+            in.skipValue();
+        }
+
+        throw new IOException("Response does not contain member: " + memberName);
+    }
+
+    /**
+     * Reads whole response to the observations request and adds observations
+     * one by one to the given series builder.
+     * @param in reader positioned at the beginning of the document
+     * @param builder builder the observations are added to
+     * @return total number of observations that match the request, as reported by Fed
+     * @throws IOException if reading fails or the response contains no observations
+     *         or no count, without which the remaining pages can't be requested
+     */
+    static int readObservationPage(JsonReader in, Series.Builder builder) throws IOException {
+        int count = -1;
+        boolean hasObservations = false;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "count":
+                    count = in.nextInt();
+                    break;
+                case "observations":
+                    readObservations(in, builder);
+                    hasObservations = true;
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (!hasObservations)
+            throw new IOException("Response does not contain member: observations");
+        if (count < 0)
+            throw new IOException("Response does not contain member: count");
+        return count;
+    }
+
+    /**
+     * Reads array of observations and adds them one by one to the given series builder.
+     * Observations without value (marked by Fed with ".") are skipped.
+     * @param in reader positioned at the beginning of the observations array
+     * @param builder builder the observations are added to
+     * @throws IOException if reading fails
+     */
+    static void readObservations(JsonReader in, Series.Builder builder) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
+
+            readObservation(in, builder);
+        }
+        in.endArray();
+    }
+
+    private static void readObservation(JsonReader in, Series.Builder builder) throws IOException {
+        int epochDay = 0;
+        boolean hasDate = false;
+        ScaledDecimal value = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "date":
+                    hasDate = in.peek() != JsonToken.NULL;
+                    if (hasDate) epochDay = readDate(in);
+                    else in.nextNull();
+                    break;
+                case "value":
+                    value = readValue(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (hasDate && value != null)
+            builder.add(epochDay, value.getMantissa(), value.getScale());
+    }
+
+    /**
+     * Reads date of the observation in yyyy-MM-dd format.
+     * @param in reader positioned at the date
+     * @return date as number of days since 1970-01-01
+     * @throws IOException if reading fails or the date is malformed
+     */
+    private static int readDate(JsonReader in) throws IOException {
+        String date = in.nextString();
+        try {
+            return EpochDays.parse(date);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed observation date: " + date, e);
+        }
+    }
+
+    /**
+     * Reads value of the observation straight from its characters,
+     * without creating {@code BigDecimal}.
+     * @param in reader positioned at the value
+     * @return value of the observation or null if Fed marked it as missing
+     * @throws IOException if reading fails or the value is not a decimal number
+     */
+    private static ScaledDecimal readValue(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        String number = in.nextString();
+        if (number.equals(".")) return null;
+
+        try {
+            return ScaledDecimal.parse(number);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed observation value: " + number, e);
+        }
+    }
+}
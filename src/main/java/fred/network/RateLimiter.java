@@ -0,0 +1,74 @@
+package fred.network;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket that limits rate of requests sent to Fed. Up to {@code burst}
+ * requests may be sent at once; after that permits are handed out
+ * at a constant rate.
+ */
+public class RateLimiter {
+    /**
+     * Number of requests per minute allowed by Fred API.
+     */
+    public static final int FRED_REQUESTS_PER_MINUTE = 120;
+
+    private final int burst;
+    private final double nanosPerPermit;
+
+    private double storedPermits;
+    private long lastRefillNanos;
+
+    /**
+     * Creates new {@code RateLimiter} object that keeps number of requests sent
+     * during any minute within Fred API limit.
+     */
+    public RateLimiter() {
+        this(FRED_REQUESTS_PER_MINUTE - 10, 10);
+    }
+
+    /**
+     * Creates new {@code RateLimiter} object.
+     * @param permitsPerMinute number of permits handed out per minute
+     *        once the burst is used up
+     * @param burst number of permits that may be handed out at once
+     */
+    public RateLimiter(int permitsPerMinute, int burst) {
+        if (permitsPerMinute <= 0)
+            throw new IllegalArgumentException("Number of permits must be positive");
+        if (burst < 1)
+            throw new IllegalArgumentException("Burst must be at least 1");
+
+        this.burst = burst;
+        this.nanosPerPermit = TimeUnit.MINUTES.toNanos(1) / (double) permitsPerMinute;
+        this.storedPermits = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes one permit, waiting until it is available.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            storedPermits = Math.min(burst,
+                    storedPermits + (now - lastRefillNanos) / nanosPerPermit);
+            lastRefillNanos = now;
+
+            storedPermits--;
+            waitNanos = storedPermits >= 0 ? 0 : (long) (-storedPermits * nanosPerPermit);
+        }
+
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimiter{" +
+                "burst=" + burst +
+                ", permitsPerMinute=" + Math.round(TimeUnit.MINUTES.toNanos(1) / nanosPerPermit) +
+                '}';
+    }
+}
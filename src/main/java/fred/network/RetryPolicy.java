@@ -0,0 +1,121 @@
+package fred.network;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Class deciding whether failed request should be sent again
+ * and how long to wait before that. Delays grow exponentially
+ * and are randomized, so that clients that failed together
+ * don't retry together. When Fed says how long to wait (Retry-After
+ * of 429 and 503 responses), the delay is never shorter than that.
+ */
+public final class RetryPolicy {
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_UNAVAILABLE = 503;
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * Creates new {@code RetryPolicy} object with 4 retries,
+     * starting with one second delay.
+     */
+    public RetryPolicy() {
+        this(4, 1_000, 30_000);
+    }
+
+    /**
+     * Creates new {@code RetryPolicy} object.
+     * @param maxRetries maximum number of times request is sent again (0 disables retries)
+     * @param baseDelayMillis upper bound of the delay before the first retry
+     * @param maxDelayMillis upper bound of any delay
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis) {
+        if (maxRetries < 0)
+            throw new IllegalArgumentException("Number of retries must not be negative");
+        if (baseDelayMillis < 0 || maxDelayMillis < baseDelayMillis)
+            throw new IllegalArgumentException("Delays must satisfy 0 <= base <= max");
+
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Returns maximum number of times request is sent again.
+     * @return maximum number of retries
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Returns true if request that failed with the given exception
+     * may succeed when sent again, i.e. Fed was overloaded (429 or 5xx)
+     * or the connection failed. Request Fed asked to send again later
+     * than the maximum delay is not retried.
+     * @param e exception request failed with
+     * @return true if request should be retried
+     */
+    public boolean isRetryable(IOException e) {
+        if (e instanceof FredHttpException) {
+            int statusCode = ((FredHttpException) e).getStatusCode();
+            return (statusCode == HTTP_TOO_MANY_REQUESTS || statusCode >= 500)
+                    && getRetryAfterMillis(e) <= maxDelayMillis;
+        }
+
+        if (e instanceof SocketTimeoutException) return true;
+        if (e instanceof InterruptedIOException) return false;
+
+        return e instanceof ConnectException || e instanceof SocketException;
+    }
+
+    /**
+     * Returns randomized delay before the given retry. Upper bound of the delay
+     * doubles with every retry, until it reaches the maximum delay.
+     * @param retry number of the retry, starting with 0
+     * @return delay in milliseconds
+     */
+    public long getDelayMillis(int retry) {
+        long bound = baseDelayMillis << Math.min(retry, 20);
+        if (bound > maxDelayMillis || bound < 0) bound = maxDelayMillis;
+
+        return bound / 2 + ThreadLocalRandom.current().nextLong(bound / 2 + 1);
+    }
+
+    /**
+     * Returns delay before the given retry of request that failed with
+     * the given exception: randomized delay, but not shorter than the time
+     * Fed asked to wait with Retry-After header of 429 or 503 response.
+     * @param retry number of the retry, starting with 0
+     * @param e exception request failed with
+     * @return delay in milliseconds
+     */
+    public long getDelayMillis(int retry, IOException e) {
+        return Math.max(getDelayMillis(retry), getRetryAfterMillis(e));
+    }
+
+    private static long getRetryAfterMillis(IOException e) {
+        if (!(e instanceof FredHttpException)) return -1;
+
+        FredHttpException httpException = (FredHttpException) e;
+        int statusCode = httpException.getStatusCode();
+        return statusCode == HTTP_TOO_MANY_REQUESTS || statusCode == HTTP_UNAVAILABLE
+                ? httpException.getRetryAfterMillis() : -1;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "maxRetries=" + maxRetries +
+                ", baseDelayMillis=" + baseDelayMillis +
+                ", maxDelayMillis=" + maxDelayMillis +
+                '}';
+    }
+}
@@ -0,0 +1,187 @@
+package fred.network;
+
+import fred.data.Series;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class representing downloads of several series that run concurrently.
+ * Results are handed out in the order the downloads finish.
+ */
+public final class SeriesBatch {
+    private final Map<String, CompletableFuture<Series>> futureMap;
+    private final BlockingQueue<Result> finishedQueue = new LinkedBlockingQueue<>();
+    private final Map<String, IOException> failureMap = new ConcurrentHashMap<>();
+    private final AtomicInteger taken = new AtomicInteger();
+
+    /**
+     * Creates new {@code SeriesBatch} object.
+     * @param futureMap map of pending downloads keyed by series id
+     */
+    SeriesBatch(Map<String, CompletableFuture<Series>> futureMap) {
+        this.futureMap = Collections.unmodifiableMap(new LinkedHashMap<>(futureMap));
+
+        this.futureMap.forEach((id, future) -> future.whenComplete((series, e) -> {
+            if (e == null) {
+                finishedQueue.add(new Result(id, series, null));
+            } else {
+                IOException failure = FredConnection.toIOException(e);
+                failureMap.put(id, failure);
+                finishedQueue.add(new Result(id, null, failure));
+            }
+        }));
+    }
+
+    /**
+     * Returns number of series in this batch.
+     * @return number of series
+     */
+    public int size() {
+        return futureMap.size();
+    }
+
+    /**
+     * Returns true if there are results that haven't been taken yet.
+     * @return true if {@link #next()} will return another result
+     */
+    public boolean hasNext() {
+        return taken.get() < futureMap.size();
+    }
+
+    /**
+     * Returns result of the next download that finished,
+     * waiting for it if necessary. Several threads may wait at the same time,
+     * each of them gets a different result.
+     * @return result of the download
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NoSuchElementException if all results were already taken
+     */
+    public Result next() throws InterruptedException {
+        int claimed;
+        do {
+            claimed = taken.get();
+            if (claimed >= futureMap.size())
+                throw new NoSuchElementException("All results were taken");
+        } while (!taken.compareAndSet(claimed, claimed + 1));
+
+        try {
+            return finishedQueue.take();
+        } catch (InterruptedException e) {
+            taken.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until all downloads finish and returns series that were
+     * downloaded successfully, in the order their ids were given.
+     * Failed downloads are available through {@link #getFailures()}.
+     * @return map of series keyed by series id
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Map<String, Series> awaitAll() throws InterruptedException {
+        Map<String, Series> seriesMap = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<Series>> entry : futureMap.entrySet()) {
+            Series series = await(entry.getValue());
+            if (series != null) seriesMap.put(entry.getKey(), series);
+        }
+
+        return seriesMap;
+    }
+
+    /**
+     * Returns failures of downloads that finished so far.
+     * @return map of failures keyed by series id
+     */
+    public Map<String, IOException> getFailures() {
+        return Collections.unmodifiableMap(failureMap);
+    }
+
+    /**
+     * Stops waiting for downloads that haven't finished yet. Their results
+     * are reported as failed with {@code InterruptedIOException}. Downloads
+     * themselves are not stopped, because other callers may share them,
+     * so they still finish and store their series in the cache.
+     */
+    public void cancel() {
+        futureMap.values().forEach(future -> future.cancel(true));
+    }
+
+    private static Series await(CompletableFuture<Series> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Class representing outcome of a single download in the batch.
+     */
+    public static final class Result {
+        private final String id;
+        private final Series series;
+        private final IOException failure;
+
+        private Result(String id, Series series, IOException failure) {
+            this.id = Objects.requireNonNull(id, "Identifier must not be null");
+            this.series = series;
+            this.failure = failure;
+        }
+
+        /**
+         * Returns id of the downloaded series.
+         * @return series identifier
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Returns true if the series was downloaded successfully.
+         * @return true if download succeeded
+         */
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+
+        /**
+         * Returns downloaded series.
+         * @return {@code Series} object
+         * @throws IOException if the download failed
+         */
+        public Series getSeries() throws IOException {
+            if (failure != null) throw failure;
+            return series;
+        }
+
+        /**
+         * Returns reason of the failure.
+         * @return exception that caused the failure or null if download succeeded
+         */
+        public IOException getFailure() {
+            return failure;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "id='" + id + '\'' +
+                    ", series=" + series +
+                    ", failure=" + failure +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package fred.network;
+
+import fred.data.Series;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Class that keeps downloaded series on disk, so that they don't have
+ * to be downloaded again as long as they are up to date.
+ * Every series is stored in its own file, in compact binary snapshot that
+ * is memory-mapped and decoded without parsing.
+ */
+public class SeriesCache {
+    /**
+     * Directory used by the default cache.
+     */
+    public static final Path DEFAULT_DIRECTORY =
+            Paths.get(System.getProperty("user.home"), ".fredapi", "cache");
+
+    private final Path directory;
+
+    /**
+     * Creates new {@code SeriesCache} object that keeps series
+     * in the default directory.
+     */
+    public SeriesCache() {
+        this(DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Creates new {@code SeriesCache} object.
+     * @param directory directory series are kept in
+     */
+    public SeriesCache(Path directory) {
+        this.directory = Objects.requireNonNull(directory, "Directory must not be null");
+    }
+
+    /**
+     * Returns directory series are kept in.
+     * @return cache directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns true if series with the given key is stored in this cache.
+     * @param key key of the series, i.e. its id
+     * @return true if the series is cached
+     */
+    public boolean contains(String key) {
+        return Files.isRegularFile(getPath(key));
+    }
+
+    /**
+     * Returns cached series. Series stored with fingerprint of its observations
+     * is validated against it, so that damaged files are not used.
+     * @param key key of the series, i.e. its id
+     * @return cached {@code Series} or null if there is no such series
+     * @throws IOException if reading fails or the series doesn't match its fingerprint
+     */
+    public Series load(String key) throws IOException {
+        try (FileChannel channel = FileChannel.open(getPath(key), StandardOpenOption.READ)) {
+            return SeriesSnapshot.decode(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores series in this cache, replacing the previous version.
+     * @param key key of the series, i.e. its id
+     * @param series series to be stored
+     * @throws IOException if writing fails
+     */
+    public void store(String key, Series series) throws IOException {
+        Objects.requireNonNull(series.getHeader(), "Header must not be null");
+
+        Files.createDirectories(directory);
+        Path path = getPath(key);
+        Path temporary = Files.createTempFile(directory,
+                path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, SeriesSnapshot.encode(series));
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Removes series from this cache.
+     * @param key key of the series, i.e. its id
+     * @throws IOException if deleting fails
+     */
+    public void remove(String key) throws IOException {
+        Files.deleteIfExists(getPath(key));
+    }
+
+    @Override
+    public String toString() {
+        return "SeriesCache{" +
+                "directory=" + directory +
+                '}';
+    }
+
+    private Path getPath(String key) {
+        return directory.resolve(getFileName(key) + ".series");
+    }
+
+    private static String getFileName(String key) {
+        return key.replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+}
@@ -0,0 +1,193 @@
+package fred.network;
+
+import fred.enumeration.AggregationMethod;
+import fred.enumeration.Frequency;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Class describing which part of the series should be downloaded.
+ * Date range, frequency and aggregation method are applied by Fed,
+ * so only the requested observations are sent.
+ */
+public final class SeriesQuery {
+    private final String id;
+    private final LocalDate observationStart;
+    private final LocalDate observationEnd;
+    private final Frequency frequency;
+    private final AggregationMethod aggregationMethod;
+
+    /**
+     * Creates new {@code SeriesQuery} object that requests all observations
+     * of the series in its native frequency.
+     * @param id series identifier
+     */
+    public SeriesQuery(String id) {
+        this(id, null, null, null, null);
+    }
+
+    /**
+     * Creates new {@code SeriesQuery} object.
+     * @param id series identifier
+     * @param observationStart date of the first observation (inclusive)
+     *        or null to start with the earliest one
+     * @param observationEnd date of the last observation (inclusive)
+     *        or null to end with the latest one
+     * @param frequency frequency observations are aggregated to
+     *        or null to keep the native frequency
+     * @param aggregationMethod method used to aggregate observations
+     *        or null to use Fed's default (average)
+     */
+    public SeriesQuery(String id, LocalDate observationStart, LocalDate observationEnd,
+                       Frequency frequency, AggregationMethod aggregationMethod) {
+        this.id = Objects.requireNonNull(id, "Identifier must not be null");
+        if (observationStart != null && observationEnd != null &&
+                observationStart.compareTo(observationEnd) > 0)
+            throw new IllegalArgumentException(
+                    "Observation start cannot be after observation end");
+        if (frequency == null && aggregationMethod != null)
+            throw new IllegalArgumentException(
+                    "Aggregation method requires frequency");
+        if (aggregationMethod != null && !aggregationMethod.isSupportedByFed())
+            throw new IllegalArgumentException("Aggregation method " + aggregationMethod +
+                    " is not supported by Fed, resample downloaded series instead");
+
+        this.observationStart = observationStart;
+        this.observationEnd = observationEnd;
+        this.frequency = frequency;
+        this.aggregationMethod = aggregationMethod;
+    }
+
+    /**
+     * Returns copy of this query limited to the given date range.
+     * @param observationStart date of the first observation or null
+     * @param observationEnd date of the last observation or null
+     * @return new {@code SeriesQuery} object
+     */
+    public SeriesQuery between(LocalDate observationStart, LocalDate observationEnd) {
+        return new SeriesQuery(id, observationStart, observationEnd,
+                frequency, aggregationMethod);
+    }
+
+    /**
+     * Returns copy of this query with observations aggregated to the given frequency.
+     * @param frequency frequency observations are aggregated to or null
+     * @param aggregationMethod method used to aggregate observations or null
+     * @return new {@code SeriesQuery} object
+     */
+    public SeriesQuery aggregatedTo(Frequency frequency, AggregationMethod aggregationMethod) {
+        return new SeriesQuery(id, observationStart, observationEnd,
+                frequency, aggregationMethod);
+    }
+
+    /**
+     * Returns id of the series.
+     * @return series identifier
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns date of the first requested observation.
+     * @return date of the first observation or null if not limited
+     */
+    public LocalDate getObservationStart() {
+        return observationStart;
+    }
+
+    /**
+     * Returns date of the last requested observation.
+     * @return date of the last observation or null if not limited
+     */
+    public LocalDate getObservationEnd() {
+        return observationEnd;
+    }
+
+    /**
+     * Returns frequency observations are aggregated to.
+     * @return frequency or null if native frequency is requested
+     */
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * Returns method used to aggregate observations.
+     * @return aggregation method or null if Fed's default is used
+     */
+    public AggregationMethod getAggregationMethod() {
+        return aggregationMethod;
+    }
+
+    /**
+     * Returns key under which result of this query is cached.
+     * Query that requests the whole series is cached under the series id.
+     * @return cache key
+     */
+    public String getCacheKey() {
+        if (observationStart == null && observationEnd == null && frequency == null)
+            return id;
+
+        return id + "_" + toKeyPart(observationStart) + "_" + toKeyPart(observationEnd) +
+                "_" + (frequency == null ? "" : frequency.getCode()) +
+                "_" + (aggregationMethod == null ? "" : aggregationMethod.getCode());
+    }
+
+    /**
+     * Returns query parameters of the observations request.
+     * @param firstDate date of the first observation that overrides
+     *        observation start of this query, or null
+     * @return map of query parameters
+     */
+    Map<String, String> toParameters(LocalDate firstDate) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("series_id", id);
+
+        LocalDate start = firstDate != null ? firstDate : observationStart;
+        if (start != null) parameters.put("observation_start", start.toString());
+        if (observationEnd != null)
+            parameters.put("observation_end", observationEnd.toString());
+        if (frequency != null) parameters.put("frequency", frequency.getCode());
+        if (aggregationMethod != null)
+            parameters.put("aggregation_method", aggregationMethod.getCode());
+
+        return parameters;
+    }
+
+    private static String toKeyPart(LocalDate date) {
+        return date == null ? "" : date.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "SeriesQuery{" +
+                "id='" + id + '\'' +
+                ", observationStart=" + observationStart +
+                ", observationEnd=" + observationEnd +
+                ", frequency=" + frequency +
+                ", aggregationMethod=" + aggregationMethod +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SeriesQuery that = (SeriesQuery) o;
+        return Objects.equals(id, that.id) &&
+                Objects.equals(observationStart, that.observationStart) &&
+                Objects.equals(observationEnd, that.observationEnd) &&
+                frequency == that.frequency &&
+                aggregationMethod == that.aggregationMethod;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, observationStart, observationEnd,
+                frequency, aggregationMethod);
+    }
+}
@@ -0,0 +1,269 @@
+package fred.network;
+
+import fred.data.EpochDays;
+import fred.data.Header;
+import fred.data.Series;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of a series. After a small header built from
+ * {@code Header} fields, dates are stored as delta-of-delta encoded epoch days
+ * and values as deltas of their scaled-integer mantissas, all of them as
+ * zigzag varints. Numbers of decimal places of single values, if they differ
+ * from the shared one, are stored as runs between them. Regular series,
+ * i.e. monthly ones, take about two bytes per observation. The encoding
+ * is decoded straight from a (memory-mapped) buffer into the columns
+ * of the series, without any text parsing.
+ */
+final class SeriesSnapshot {
+    /**
+     * First bytes of every snapshot: "FRED".
+     */
+    private static final int MAGIC = 0x46524544;
+    private static final byte VERSION = 2;
+
+    /**
+     * Version without numbers of decimal places of single values,
+     * in which all values have the shared number.
+     */
+    private static final byte UNIFORM_SCALE_VERSION = 1;
+
+    private SeriesSnapshot() {
+    }
+
+    /**
+     * Encodes series with its header.
+     * @param series series to be encoded
+     * @return encoded series
+     */
+    static byte[] encode(Series series) {
+        Header header = series.getHeader();
+        Encoder out = new Encoder(64 + 3 * series.size());
+
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeString(header.getId());
+        out.writeString(header.getTitle());
+        out.writeVarLong(zigzag(EpochDays.of(header.getObservation_start())));
+        out.writeVarLong(zigzag(EpochDays.of(header.getObservation_end())));
+        out.writeString(header.getFrequency());
+        out.writeString(header.getUnits());
+        out.writeByte(header.getLast_updated() == null ? 0 : 1);
+        if (header.getLast_updated() != null) out.writeString(header.getLast_updated());
+
+        out.writeByte(series.getScale());
+        out.writeVarLong(series.size());
+        out.writeLong(series.getFingerprint());
+
+        long previousDay = 0;
+        long previousDelta = 0;
+        long previousMantissa = 0;
+        for (int i = 0; i < series.size(); i++) {
+            long day = series.getEpochDay(i);
+            long delta = day - previousDay;
+            out.writeVarLong(zigzag(i == 0 ? day : delta - previousDelta));
+            previousDelta = i == 0 ? 0 : delta;
+            previousDay = day;
+        }
+        writeValueScales(out, series);
+        for (int i = 0; i < series.size(); i++) {
+            long mantissa = series.getMantissa(i);
+            out.writeVarLong(zigzag(mantissa - previousMantissa));
+            previousMantissa = mantissa;
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes numbers of decimal places of the values as runs of equal ones:
+     * number of runs, and then length and number of decimal places of each run.
+     * Series in which all values have the shared number has no runs.
+     */
+    private static void writeValueScales(Encoder out, Series series) {
+        int runs = 0;
+        boolean uniform = true;
+        for (int i = 0; i < series.size(); i++) {
+            if (i == 0 || series.getValueScale(i) != series.getValueScale(i - 1)) runs++;
+            uniform &= series.getValueScale(i) == series.getScale();
+        }
+        if (uniform) {
+            out.writeVarLong(0);
+            return;
+        }
+
+        out.writeVarLong(runs);
+        int runStart = 0;
+        for (int i = 1; i <= series.size(); i++) {
+            if (i == series.size() || series.getValueScale(i) != series.getValueScale(runStart)) {
+                out.writeVarLong(i - runStart);
+                out.writeByte(series.getValueScale(runStart));
+                runStart = i;
+            }
+        }
+    }
+
+    /**
+     * Decodes series encoded with {@link #encode(Series)}.
+     * @param in buffer positioned at the beginning of the snapshot
+     * @return decoded series
+     * @throws IOException if the buffer doesn't contain valid snapshot
+     */
+    static Series decode(ByteBuffer in) throws IOException {
+        try {
+            if (in.getInt() != MAGIC)
+                throw new IOException("Unsupported series snapshot");
+            byte version = in.get();
+            if (version != VERSION && version != UNIFORM_SCALE_VERSION)
+                throw new IOException("Unsupported series snapshot");
+
+            String id = readString(in);
+            String title = readString(in);
+            int observationStart = (int) unzigzag(readVarLong(in));
+            int observationEnd = (int) unzigzag(readVarLong(in));
+            String frequency = readString(in);
+            String units = readString(in);
+            String lastUpdated = in.get() == 0 ? null : readString(in);
+            Header header = new Header(id, title, EpochDays.toLocalDate(observationStart),
+                    EpochDays.toLocalDate(observationEnd), frequency, units, lastUpdated);
+
+            int scale = in.get();
+            int count = Math.toIntExact(readVarLong(in));
+            long fingerprint = in.getLong();
+
+            int[] epochDays = new int[count];
+            long day = 0;
+            long delta = 0;
+            for (int i = 0; i < count; i++) {
+                long value = unzigzag(readVarLong(in));
+                if (i == 0) {
+                    day = value;
+                } else {
+                    delta += value;
+                    day += delta;
+                }
+                epochDays[i] = Math.toIntExact(day);
+            }
+
+            byte[] valueScales = version == VERSION ? readValueScales(in, count) : null;
+
+            long[] mantissas = new long[count];
+            long mantissa = 0;
+            for (int i = 0; i < count; i++) {
+                mantissa += unzigzag(readVarLong(in));
+                mantissas[i] = mantissa;
+            }
+
+            Series series = Series.ofColumns(header, epochDays, mantissas, scale, valueScales);
+            if (series.getFingerprint() != fingerprint)
+                throw new IOException("Series snapshot doesn't match its fingerprint");
+            return series;
+        } catch (BufferUnderflowException | IllegalArgumentException | ArithmeticException e) {
+            throw new IOException("Malformed series snapshot", e);
+        }
+    }
+
+    private static byte[] readValueScales(ByteBuffer in, int count) throws IOException {
+        int runs = Math.toIntExact(readVarLong(in));
+        if (runs == 0) return null;
+
+        byte[] valueScales = new byte[count];
+        int index = 0;
+        for (int run = 0; run < runs; run++) {
+            int length = Math.toIntExact(readVarLong(in));
+            byte valueScale = in.get();
+            if (length > count - index)
+                throw new IOException("Malformed series snapshot");
+            Arrays.fill(valueScales, index, index + length, valueScale);
+            index += length;
+        }
+        if (index != count)
+            throw new IOException("Malformed series snapshot");
+
+        return valueScales;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarLong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) return value;
+        }
+
+        throw new IOException("Malformed varint in series snapshot");
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = Math.toIntExact(readVarLong(in));
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Growable byte array with methods that write the snapshot primitives.
+     */
+    private static final class Encoder {
+        private byte[] bytes;
+        private int size;
+
+        private Encoder(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeInt(int value) {
+            for (int shift = 24; shift >= 0; shift -= 8)
+                writeByte(value >>> shift);
+        }
+
+        private void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8)
+                writeByte((int) (value >>> shift));
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7fL) != 0) {
+                writeByte((int) (value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        private void writeString(String value) {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(encoded.length);
+            ensureCapacity(encoded.length);
+            System.arraycopy(encoded, 0, bytes, size, encoded.length);
+            size += encoded.length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(size + extra, bytes.length * 2));
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package fred.network;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Transport layer used by {@link FredConnection} to send requests to Fed.
+ */
+@FunctionalInterface
+public interface Transport {
+    /**
+     * Sends request to the given Fred API endpoint and returns body of the response.
+     * The returned stream must be closed by the caller.
+     * @param path path of the endpoint relative to the API root (i.e. series/observations)
+     * @param parameters query parameters of the request
+     * @return decoded body of the response
+     * @throws IOException if the request fails
+     */
+    InputStream get(String path, Map<String, String> parameters) throws IOException;
+}
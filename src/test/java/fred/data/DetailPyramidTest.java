@@ -0,0 +1,106 @@
+package fred.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetailPyramidTest {
+    private SeriesRange getMockedRange(int count) {
+        Series.Builder builder = new Series.Builder();
+        LocalDate date = LocalDate.of(1990, 1, 1);
+        for (int i = 0; i < count; i++, date = date.plusDays(1))
+            builder.add(date, BigDecimal.valueOf((i * 37) % 101, 2));
+
+        Series series = builder.build();
+        return series.getObservationList(series.getDate(0), series.getDate(count - 1));
+    }
+
+    @Test
+    void shortRangeShouldNotBeReduced() {
+        SeriesRange range = getMockedRange(50);
+        PlotPoints points = range.downsample(100);
+
+        assertAll(
+                () -> assertEquals(50, points.size()),
+                () -> assertEquals(range.getEpochDay(49), points.getXValues()[49]),
+                () -> assertEquals(range.getValue(49), points.getYValues()[49])
+        );
+    }
+
+    @Test
+    void longRangeShouldKeepEndsAndExtremes() {
+        SeriesRange range = getMockedRange(10000);
+        PlotPoints points = range.downsample(100);
+
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (double value : points.getYValues()) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        double[] xValues = points.getXValues();
+
+        int levels = range.getSeries().getDetailPyramid().getLevelCount();
+        assertEquals(15, levels);
+        assertTrue(points.size() <= 2 * 100 + 4 * levels + 2);
+        assertEquals(range.getEpochDay(0), xValues[0]);
+        assertEquals(range.getEpochDay(9999), xValues[xValues.length - 1]);
+        assertEquals(range.getMinimum(), min);
+        assertEquals(range.getMaximum(), max);
+        for (int i = 1; i < xValues.length; i++)
+            assertTrue(xValues[i - 1] < xValues[i]);
+    }
+
+    @Test
+    void unalignedRangesShouldKeepEndsAndExtremes() {
+        Series series = getMockedRange(5000).getSeries();
+        DetailPyramid pyramid = series.getDetailPyramid();
+
+        for (int from = 0; from < 2000; from += 333) {
+            for (int to = from + 1; to <= series.size(); to += 777) {
+                PlotPoints points = pyramid.getPoints(from, to, 40);
+                double[] xValues = points.getXValues();
+                double[] yValues = points.getYValues();
+
+                double min = Double.MAX_VALUE;
+                double max = -Double.MAX_VALUE;
+                for (double value : yValues) {
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+
+                assertEquals(series.getEpochDay(from), xValues[0]);
+                assertEquals(series.getEpochDay(to - 1), xValues[xValues.length - 1]);
+                assertEquals(series.getRangeIndex().getMinimum(from, to), min);
+                assertEquals(series.getRangeIndex().getMaximum(from, to), max);
+                assertTrue(points.size() <= 2 * 40 + 4 * pyramid.getLevelCount() + 2);
+            }
+        }
+    }
+
+    @Test
+    void pointsWrittenToBuffersShouldBeEqualToReturnedPoints() {
+        DetailPyramid pyramid = getMockedRange(3000).getSeries().getDetailPyramid();
+        double[] xValues = new double[pyramid.getCapacity(50)];
+        double[] yValues = new double[xValues.length];
+
+        int size = pyramid.getPoints(17, 2900, 50, xValues, yValues);
+        PlotPoints points = pyramid.getPoints(17, 2900, 50);
+
+        assertAll(
+                () -> assertArrayEquals(points.getXValues(), Arrays.copyOf(xValues, size)),
+                () -> assertArrayEquals(points.getYValues(), Arrays.copyOf(yValues, size)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> pyramid.getPoints(17, 2900, 51, xValues, yValues))
+        );
+    }
+
+    @Test
+    void givenNoBucketsShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> getMockedRange(10).downsample(0));
+    }
+}
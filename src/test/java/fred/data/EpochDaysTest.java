@@ -0,0 +1,60 @@
+package fred.data;
+
+import fred.enumeration.Frequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpochDaysTest {
+
+    @Test
+    void parsedDatesShouldBeEqualToLocalDate() {
+        LocalDate last = LocalDate.of(2100, 12, 31);
+        for (LocalDate date = LocalDate.of(1600, 1, 1); !date.isAfter(last); date = date.plusDays(1)) {
+            int epochDay = EpochDays.parse(date.toString());
+
+            assertEquals(date.toEpochDay(), epochDay);
+            assertEquals(date, EpochDays.toLocalDate(epochDay));
+        }
+    }
+
+    @Test
+    void yearsShouldBeAddedLikeLocalDate() {
+        LocalDate[] dates = {LocalDate.of(2016, 2, 29), LocalDate.of(2019, 12, 31),
+                LocalDate.of(1900, 3, 1), LocalDate.of(1969, 12, 31)};
+
+        for (LocalDate date : dates)
+            for (int years = -5; years <= 5; years++)
+                assertEquals(date.plusYears(years).toEpochDay(),
+                        EpochDays.plusYears(EpochDays.of(date), years));
+    }
+
+    @Test
+    void givenMalformedDateShouldThrowAnException() {
+        String[] dates = {"2019-1-01", "2019/01/01", "2019-13-01", "2019-00-10",
+                "2019-02-29", "2019-04-31", "20a9-01-01", ""};
+
+        for (String date : dates)
+            assertThrows(IllegalArgumentException.class, () -> EpochDays.parse(date));
+    }
+
+    @Test
+    void firstDayOfPeriodShouldFollowFedPeriods() {
+        int wednesday = EpochDays.of(LocalDate.of(2019, 1, 30));
+        int friday = EpochDays.of(LocalDate.of(2019, 2, 1));
+
+        assertAll(
+                () -> assertEquals(LocalDate.of(2019, 1, 26),
+                        EpochDays.toLocalDate(EpochDays.firstDayOfPeriod(wednesday, Frequency.WEEKLY))),
+                () -> assertEquals(LocalDate.of(2019, 1, 26),
+                        EpochDays.toLocalDate(EpochDays.firstDayOfPeriod(friday, Frequency.WEEKLY))),
+                () -> assertEquals(LocalDate.of(2019, 1, 17),
+                        EpochDays.toLocalDate(EpochDays.firstDayOfPeriod(wednesday, Frequency.BIWEEKLY))),
+                () -> assertEquals(LocalDate.of(2019, 1, 1),
+                        EpochDays.toLocalDate(EpochDays.firstDayOfPeriod(friday, Frequency.QUARTERLY))),
+                () -> assertEquals(friday, EpochDays.firstDayOfPeriod(friday, Frequency.DAILY))
+        );
+    }
+}
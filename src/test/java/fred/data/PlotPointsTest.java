@@ -0,0 +1,70 @@
+package fred.data;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.stream.DoubleStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlotPointsTest {
+
+    private Series getMockedSeries() {
+        return new Series.Builder()
+                .add(LocalDate.of(2018, 1, 1), new BigDecimal("1.5"))
+                .add(LocalDate.of(2018, 2, 1), new BigDecimal("2.25"))
+                .add(LocalDate.of(2018, 3, 1), new BigDecimal("-0.5"))
+                .add(LocalDate.of(2018, 4, 1), new BigDecimal("4"))
+                .build();
+    }
+
+    @Test
+    void pointsShouldContainDatesAndValuesOfTheRange() {
+        PlotPoints points = getMockedSeries().getDetailPyramid().getPoints(1, 4, 100);
+
+        double[] xValues = {LocalDate.of(2018, 2, 1).toEpochDay(),
+                LocalDate.of(2018, 3, 1).toEpochDay(), LocalDate.of(2018, 4, 1).toEpochDay()};
+        assertAll(
+                () -> assertEquals(3, points.size()),
+                () -> assertArrayEquals(xValues, points.getXValues()),
+                () -> assertArrayEquals(new double[]{2.25, -0.5, 4}, points.getYValues())
+        );
+    }
+
+    @Test
+    void paddedBufferShouldRepeatLastPoint() {
+        DetailPyramid pyramid = getMockedSeries().getDetailPyramid();
+        double[] xValues = new double[pyramid.getCapacity(100)];
+        double[] yValues = new double[xValues.length];
+
+        int size = pyramid.getPoints(0, 2, 100, xValues, yValues);
+        PlotPoints.padBuffer(xValues, size);
+        PlotPoints.padBuffer(yValues, size);
+
+        double lastDay = LocalDate.of(2018, 2, 1).toEpochDay();
+        assertAll(
+                () -> assertEquals(2, size),
+                () -> assertEquals(LocalDate.of(2018, 1, 1).toEpochDay(), xValues[0]),
+                () -> assertEquals(1.5, yValues[0]),
+                () -> assertTrue(DoubleStream.of(xValues).skip(1)
+                        .allMatch(x -> x == lastDay)),
+                () -> assertTrue(DoubleStream.of(yValues).skip(1)
+                        .allMatch(y -> y == 2.25))
+        );
+    }
+
+    @Test
+    void emptyBufferShouldNotBePadded() {
+        double[] buffer = {7, 7, 7};
+        PlotPoints.padBuffer(buffer, 0);
+
+        assertArrayEquals(new double[]{7, 7, 7}, buffer);
+    }
+
+    @Test
+    void equalsContract() {
+        EqualsVerifier.forClass(PlotPoints.class).verify();
+    }
+}
@@ -0,0 +1,82 @@
+package fred.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeIndexTest {
+
+    @Test
+    void rangeQueriesShouldBeEqualToScans() {
+        Random random = new Random(42);
+        Series.Builder builder = new Series.Builder();
+        for (int i = 0; i < 257; i++)
+            builder.add(LocalDate.of(2000, 1, 1).plusDays(i),
+                    BigDecimal.valueOf(random.nextInt(20_000) - 10_000, 2));
+        Series series = builder.build();
+        RangeIndex index = series.getRangeIndex();
+
+        for (int from = 0; from < series.size(); from += 7) {
+            for (int to = from + 1; to <= series.size(); to += 5) {
+                double min = Double.MAX_VALUE;
+                double max = -Double.MAX_VALUE;
+                double sum = 0;
+                for (int i = from; i < to; i++) {
+                    min = Math.min(min, series.getValue(i));
+                    max = Math.max(max, series.getValue(i));
+                    sum += series.getValue(i);
+                }
+
+                assertEquals(min, index.getMinimum(from, to));
+                assertEquals(max, index.getMaximum(from, to));
+                assertEquals(sum, index.getSum(from, to), 1e-6);
+                assertEquals(to - from, index.getCount(from, to));
+            }
+        }
+    }
+
+    @Test
+    void sumsShouldNotOverflowForLargeMantissas() {
+        int day = (int) LocalDate.of(2018, 1, 1).toEpochDay();
+        long large = Long.MAX_VALUE / 10 * 9;
+        RangeIndex index = new Series.Builder()
+                .add(day, -large, 0)
+                .add(day + 1, large, 0)
+                .add(day + 2, large, 0)
+                .build()
+                .getRangeIndex();
+
+        assertAll(
+                () -> assertEquals(2.0 * large, index.getSum(1, 3)),
+                () -> assertEquals((double) large, index.getSum(0, 3)),
+                () -> assertEquals((double) large, index.getAverage(1, 3))
+        );
+    }
+
+    @Test
+    void seriesRangeShouldUseIndexOfItsSeries() {
+        Series series = new Series.Builder()
+                .add(LocalDate.of(2018, 1, 1), new BigDecimal("3.5"))
+                .add(LocalDate.of(2018, 2, 1), new BigDecimal("-1.25"))
+                .add(LocalDate.of(2018, 3, 1), new BigDecimal("8"))
+                .build();
+        SeriesRange range = series.getObservationList(
+                LocalDate.of(2018, 1, 1), LocalDate.of(2018, 2, 1));
+
+        assertAll(
+                () -> assertSame(series.getRangeIndex(), series.getRangeIndex()),
+                () -> assertEquals(-1.25, range.getMinimum()),
+                () -> assertEquals(3.5, range.getMaximum()),
+                () -> assertEquals(1.125, range.getAverage()),
+                () -> assertThrows(NoSuchElementException.class,
+                        () -> series.getRangeIndex().getMinimum(1, 1)),
+                () -> assertThrows(IndexOutOfBoundsException.class,
+                        () -> series.getRangeIndex().getSum(2, 4))
+        );
+    }
+}
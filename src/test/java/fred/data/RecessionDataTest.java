@@ -0,0 +1,59 @@
+package fred.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecessionDataTest {
+    private static int epochDay(int year, int month) {
+        return (int) LocalDate.of(year, month, 1).toEpochDay();
+    }
+
+    private RecessionData getMockedRecessionData() {
+        return new RecessionData(
+                new int[]{epochDay(1990, 7), epochDay(2001, 3), epochDay(2007, 12)},
+                new int[]{epochDay(1991, 3), epochDay(2001, 11), epochDay(2009, 6)});
+    }
+
+    @Test
+    void recessionsShouldBeKeptAsIntervals() {
+        RecessionData recessionData = getMockedRecessionData();
+
+        assertAll(
+                () -> assertEquals(3, recessionData.getRecessionCount()),
+                () -> assertEquals(LocalDate.of(2001, 3, 1).toEpochDay(), recessionData.getStartEpochDay(1)),
+                () -> assertEquals(LocalDate.of(2001, 11, 1).toEpochDay(), recessionData.getEndEpochDay(1)),
+                () -> assertEquals(LocalDate.of(2009, 6, 1).toEpochDay(), recessionData.getEndEpochDay(2))
+        );
+    }
+
+    @Test
+    void indexOfShouldReturnFirstRecessionEndingOnOrAfterDay() {
+        RecessionData recessionData = getMockedRecessionData();
+
+        assertAll(
+                () -> assertEquals(0, recessionData.indexOf(LocalDate.of(1980, 1, 1).toEpochDay())),
+                () -> assertEquals(1, recessionData.indexOf(LocalDate.of(1991, 3, 2).toEpochDay())),
+                () -> assertEquals(1, recessionData.indexOf(LocalDate.of(2001, 11, 1).toEpochDay())),
+                () -> assertEquals(3, recessionData.indexOf(LocalDate.of(2010, 1, 1).toEpochDay()))
+        );
+    }
+
+    @Test
+    void recessionDataWithSameIntervalsShouldBeEqual() {
+        RecessionData other = new RecessionData(
+                new int[]{epochDay(1990, 7), epochDay(2001, 3)},
+                new int[]{epochDay(1991, 3), epochDay(2001, 11)});
+
+        assertAll(
+                () -> assertEquals(getMockedRecessionData(), getMockedRecessionData()),
+                () -> assertEquals(getMockedRecessionData().getFingerprint(),
+                        getMockedRecessionData().getFingerprint()),
+                () -> assertNotEquals(getMockedRecessionData(), other),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new RecessionData(new int[1], new int[2]))
+        );
+    }
+}
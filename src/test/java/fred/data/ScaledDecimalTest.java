@@ -0,0 +1,72 @@
+package fred.data;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScaledDecimalTest {
+
+    @Test
+    void parsedValueShouldBeEqualToBigDecimal() {
+        String[] numbers = {"0", "1.50", "-12.750", "+3.", ".25", "18937.457", "0.0001"};
+
+        for (String number : numbers) {
+            ScaledDecimal parsed = ScaledDecimal.parse(number);
+            BigDecimal expected = new BigDecimal(number);
+
+            assertAll(
+                    () -> assertEquals(expected, parsed.toBigDecimal()),
+                    () -> assertEquals(expected.doubleValue(), parsed.doubleValue()),
+                    () -> assertEquals(parsed, ScaledDecimal.valueOf(expected))
+            );
+        }
+    }
+
+    @Test
+    void givenMalformedNumberShouldThrowAnException() {
+        String[] numbers = {"", "-", ".", "1.2.3", "1e5", "12a", "99999999999999999999"};
+
+        for (String number : numbers)
+            assertThrows(NumberFormatException.class, () -> ScaledDecimal.parse(number));
+    }
+
+    @Test
+    void rescaledMantissaShouldKeepValue() {
+        assertAll(
+                () -> assertEquals(15000, ScaledDecimal.rescale(150, 2, 4)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> ScaledDecimal.rescale(150, 2, 1)),
+                () -> assertThrows(ArithmeticException.class,
+                        () -> ScaledDecimal.rescale(Long.MAX_VALUE / 10, 0, 2))
+        );
+    }
+
+    @Test
+    void roundedMantissaShouldBeRoundedHalfToEven() {
+        assertAll(
+                () -> assertEquals(12, ScaledDecimal.round(125, 1, 0)),
+                () -> assertEquals(14, ScaledDecimal.round(135, 1, 0)),
+                () -> assertEquals(-13, ScaledDecimal.round(-1251, 2, 0)),
+                () -> assertEquals(150, ScaledDecimal.round(150, 2, 2)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> ScaledDecimal.round(150, 2, 4))
+        );
+    }
+
+    @Test
+    void maxScaleShouldKeepMantissaInLong() {
+        assertAll(
+                () -> assertEquals(ScaledDecimal.MAX_SCALE, ScaledDecimal.maxScale(1, 0)),
+                () -> assertEquals(7, ScaledDecimal.maxScale(123456789012L, 0)),
+                () -> assertEquals(2, ScaledDecimal.maxScale(Long.MIN_VALUE, 2))
+        );
+    }
+
+    @Test
+    void equalsContract() {
+        EqualsVerifier.forClass(ScaledDecimal.class).verify();
+    }
+}
@@ -0,0 +1,110 @@
+package fred.data;
+
+import fred.enumeration.JoinType;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesFrameTest {
+
+    private static final Series QUARTERLY = new Series.Builder()
+            .add(LocalDate.of(2018, 1, 1), new BigDecimal("100.5"))
+            .add(LocalDate.of(2018, 4, 1), new BigDecimal("101.5"))
+            .build();
+
+    private static final Series MONTHLY = new Series.Builder()
+            .add(LocalDate.of(2018, 2, 1), new BigDecimal("4.1"))
+            .add(LocalDate.of(2018, 3, 1), new BigDecimal("4.0"))
+            .add(LocalDate.of(2018, 4, 1), new BigDecimal("3.9"))
+            .add(LocalDate.of(2018, 5, 1), new BigDecimal("3.8"))
+            .build();
+
+    @Test
+    void outerJoinShouldKeepAllDates() {
+        SeriesFrame frame = SeriesFrame.align(JoinType.OUTER, QUARTERLY, MONTHLY);
+
+        assertAll(
+                () -> assertEquals(5, frame.getRowCount()),
+                () -> assertEquals(2, frame.getColumnCount()),
+                () -> assertEquals(LocalDate.of(2018, 1, 1), frame.getDate(0)),
+                () -> assertFalse(frame.hasValue(0, 1)),
+                () -> assertTrue(Double.isNaN(frame.getValue(0, 1))),
+                () -> assertNull(frame.getDecimalValue(1, 0)),
+                () -> assertEquals(new BigDecimal("101.5"), frame.getDecimalValue(3, 0)),
+                () -> assertEquals(3.9, frame.getValue(3, 1))
+        );
+    }
+
+    @Test
+    void decimalValuesShouldKeepDecimalPlacesGivenByFed() {
+        Series mixed = new Series.Builder()
+                .add(LocalDate.of(2018, 1, 1), new BigDecimal("1.5"))
+                .add(LocalDate.of(2018, 3, 1), new BigDecimal("2.125"))
+                .build();
+        SeriesFrame frame = SeriesFrame.align(JoinType.AS_OF, mixed, MONTHLY);
+
+        assertAll(
+                () -> assertEquals(mixed.getDecimalValue(0), frame.getDecimalValue(0, 0)),
+                () -> assertEquals(new BigDecimal("1.5"), frame.getDecimalValue(1, 0)),
+                () -> assertEquals(new BigDecimal("2.125"), frame.getDecimalValue(2, 0)),
+                () -> assertEquals(new BigDecimal("4.1"), frame.getDecimalValue(1, 1))
+        );
+    }
+
+    @Test
+    void innerJoinShouldKeepCommonDates() {
+        SeriesFrame frame = SeriesFrame.align(JoinType.INNER, QUARTERLY, MONTHLY);
+
+        assertAll(
+                () -> assertEquals(1, frame.getRowCount()),
+                () -> assertEquals(LocalDate.of(2018, 4, 1), frame.getDate(0)),
+                () -> assertEquals(101.5, frame.getValue(0, 0)),
+                () -> assertEquals(3.9, frame.getValue(0, 1))
+        );
+    }
+
+    @Test
+    void asOfJoinShouldCarryLastValueForward() {
+        SeriesFrame frame = SeriesFrame.align(JoinType.AS_OF, QUARTERLY, MONTHLY);
+
+        assertAll(
+                () -> assertEquals(5, frame.getRowCount()),
+                () -> assertFalse(frame.hasValue(0, 1)),
+                () -> assertArrayEquals(new double[]{100.5, 100.5, 100.5, 101.5, 101.5},
+                        frame.getColumnValues(0)),
+                () -> assertEquals(4.1, frame.getValue(1, 1))
+        );
+    }
+
+    @Test
+    void emptySeriesShouldGiveEmptyInnerJoin() {
+        Series empty = new Series.Builder().build();
+
+        assertAll(
+                () -> assertEquals(0, SeriesFrame.align(JoinType.INNER, QUARTERLY, empty).getRowCount()),
+                () -> assertEquals(2, SeriesFrame.align(JoinType.OUTER, QUARTERLY, empty).getRowCount()),
+                () -> assertEquals(0, SeriesFrame.align(JoinType.OUTER).getRowCount())
+        );
+    }
+
+    @Test
+    void indexOfShouldReturnFirstRowOnOrAfterDay() {
+        SeriesFrame frame = SeriesFrame.align(JoinType.OUTER, QUARTERLY, MONTHLY);
+
+        assertAll(
+                () -> assertEquals(0, frame.indexOf(LocalDate.of(2017, 12, 1).toEpochDay())),
+                () -> assertEquals(3, frame.indexOf(LocalDate.of(2018, 4, 1).toEpochDay())),
+                () -> assertEquals(4, frame.indexOf(LocalDate.of(2018, 4, 2).toEpochDay())),
+                () -> assertEquals(5, frame.indexOf(LocalDate.of(2018, 6, 1).toEpochDay()))
+        );
+    }
+
+    @Test
+    void equalsContract() {
+        EqualsVerifier.forClass(SeriesFrame.class).verify();
+    }
+}
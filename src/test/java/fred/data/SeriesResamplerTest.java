@@ -0,0 +1,91 @@
+package fred.data;
+
+import fred.enumeration.AggregationMethod;
+import fred.enumeration.Frequency;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesResamplerTest {
+
+    private Series getDailySeries() {
+        Header header = new Header("DEXUSEU", "U.S. / Euro Foreign Exchange Rate",
+                LocalDate.of(2018, 12, 28), LocalDate.of(2019, 2, 1),
+                "Daily", "U.S. Dollars to One Euro");
+
+        Series.Builder builder = new Series.Builder(header);
+        LocalDate date = LocalDate.of(2018, 12, 28);
+        for (int i = 1; !date.isAfter(LocalDate.of(2019, 2, 1)); i++, date = date.plusDays(1)) {
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY)
+                continue;
+            builder.add(date, BigDecimal.valueOf(i, 2));
+        }
+
+        return builder.build();
+    }
+
+    @Test
+    void monthlyAggregatesShouldBeDatedWithFirstDayOfMonth() {
+        Series series = getDailySeries();
+        Series minimum = series.resample(Frequency.MONTHLY, AggregationMethod.MINIMUM);
+        Series maximum = series.resample(Frequency.MONTHLY, AggregationMethod.MAXIMUM);
+        Series endOfPeriod = series.resample(Frequency.MONTHLY, AggregationMethod.END_OF_PERIOD);
+
+        assertAll(
+                () -> assertEquals(Arrays.asList(LocalDate.of(2018, 12, 1),
+                        LocalDate.of(2019, 1, 1), LocalDate.of(2019, 2, 1)), minimum.getDateList()),
+                () -> assertEquals(Arrays.asList(new BigDecimal("0.01"), new BigDecimal("0.05"),
+                        new BigDecimal("0.36")), minimum.getValueList()),
+                () -> assertEquals(Arrays.asList(new BigDecimal("0.04"), new BigDecimal("0.35"),
+                        new BigDecimal("0.36")), maximum.getValueList()),
+                () -> assertEquals(maximum, endOfPeriod),
+                () -> assertEquals("Monthly", minimum.getHeader().getFrequency())
+        );
+    }
+
+    @Test
+    void averageAndSumShouldCoverWholePeriod() {
+        Series series = getDailySeries();
+        Series average = series.resample(Frequency.ANNUAL, AggregationMethod.AVERAGE);
+        Series sum = series.resample(Frequency.ANNUAL, AggregationMethod.SUM);
+
+        assertAll(
+                () -> assertEquals(2, average.size()),
+                () -> assertEquals(0.025, average.getValue(0), 1e-9),
+                () -> assertEquals(new BigDecimal("0.05"), sum.getDecimalValue(0)),
+                () -> assertEquals(LocalDate.of(2019, 1, 1), sum.getDate(1))
+        );
+    }
+
+    @Test
+    void weeklyPeriodsShouldEndOnFriday() {
+        Series weekly = getDailySeries().resample(Frequency.WEEKLY, AggregationMethod.SUM);
+
+        for (LocalDate date : weekly.getDateList())
+            assertEquals(DayOfWeek.FRIDAY, date.getDayOfWeek());
+        assertEquals(6, weekly.size());
+    }
+
+    @Test
+    void biweeklyPeriodsShouldEndOnWednesday() {
+        for (int epochDay = -30; epochDay < 30; epochDay++) {
+            int period = SeriesResampler.periodOf(epochDay, Frequency.BIWEEKLY);
+
+            assertEquals(DayOfWeek.WEDNESDAY, LocalDate.ofEpochDay(period).getDayOfWeek());
+            assertTrue(period >= epochDay && period < epochDay + 14);
+        }
+    }
+
+    @Test
+    void resampledSeriesShouldBeRemembered() {
+        Series series = getDailySeries();
+
+        assertSame(series.resample(Frequency.QUARTERLY, AggregationMethod.AVERAGE),
+                series.resample(Frequency.QUARTERLY, AggregationMethod.AVERAGE));
+    }
+}
@@ -1,6 +1,7 @@
 package fred.data;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
@@ -83,8 +84,152 @@ class SeriesTest {
         );
     }
 
+    @Test
+    void observationRangeShouldBeViewOfSeries() {
+        Series series = getMockedSeries();
+        SeriesRange range = series.getObservationList(
+                LocalDate.of(1949, 6, 1), LocalDate.of(1951, 1, 1));
+
+        assertAll(
+                () -> assertSame(series, range.getSeries()),
+                () -> assertEquals(2, range.size()),
+                () -> assertEquals(LocalDate.of(1950, 1, 1), range.getDate(0)),
+                () -> assertEquals(LocalDate.of(1951, 1, 1).toEpochDay(), range.getEpochDay(1)),
+                () -> assertEquals(52.0, range.getValue(1)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> range.getValue(2))
+        );
+    }
+
+    @Test
+    void observationRangeOutsideSeriesShouldBeEmpty() {
+        Series series = getMockedSeries();
+
+        assertAll(
+                () -> assertTrue(series.getObservationList(
+                        LocalDate.of(1800, 1, 1), LocalDate.of(1899, 12, 31)).isEmpty()),
+                () -> assertTrue(series.getObservationList(
+                        LocalDate.of(2018, 1, 2), LocalDate.of(2100, 1, 1)).isEmpty()),
+                () -> assertTrue(series.getObservationList(
+                        LocalDate.of(1950, 1, 2), LocalDate.of(1950, 12, 31)).isEmpty())
+        );
+    }
+
+    @Test
+    void mergedSeriesShouldReplaceObservationsFromFirstDate() {
+        Series series = getMockedSeries();
+        List<Observation> mockedObservationList = series.getObservationList();
+        LocalDate firstDate = LocalDate.of(2017, 1, 1);
+
+        List<Observation> newerObservations = new ArrayList<>();
+        newerObservations.add(new Observation(firstDate, BigDecimal.TEN));
+        newerObservations.add(new Observation(LocalDate.of(2018, 1, 1), BigDecimal.TEN));
+        newerObservations.add(new Observation(LocalDate.of(2019, 1, 1), BigDecimal.TEN));
+
+        List<Observation> expectedObservationList = new ArrayList<>(
+                mockedObservationList.subList(0, mockedObservationList.size() - 2));
+        expectedObservationList.addAll(newerObservations);
+
+        Series merged = series.merge(null, firstDate, new Series(null, newerObservations));
+        assertAll(
+                () -> assertEquals(expectedObservationList, merged.getObservationList()),
+                () -> assertEquals(getMockedSeries(), series)
+        );
+    }
+
+    @Test
+    void builtSeriesShouldBeEqualToSeriesCreatedFromList() {
+        Series series = getMockedSeries();
+        Series.Builder builder = new Series.Builder();
+        for (Observation observation : series.getObservationList())
+            builder.add(observation.getDate(), observation.getValue());
+
+        assertEquals(series, builder.build());
+    }
+
+    @Test
+    void valuesWithDifferentScalesShouldBeKeptExactly() {
+        Series series = new Series.Builder()
+                .add(LocalDate.of(2018, 1, 1), new BigDecimal("1.5"))
+                .add(LocalDate.of(2018, 2, 1), ScaledDecimal.parse("2.125"))
+                .add(LocalDate.of(2018, 3, 1), new BigDecimal("-3"))
+                .build();
+
+        assertAll(
+                () -> assertEquals(3, series.getScale()),
+                () -> assertEquals(1500, series.getMantissa(0)),
+                () -> assertEquals(new BigDecimal("2.125"), series.getDecimalValue(1)),
+                () -> assertEquals(new BigDecimal("1.5"), series.getDecimalValue(0)),
+                () -> assertEquals(0, series.getValueScale(2)),
+                () -> assertEquals(-3.0, series.getValue(2))
+        );
+    }
+
+    @Test
+    void valuesThatDontFitWithSharedScaleShouldBeRounded() {
+        LocalDate first = LocalDate.of(2018, 1, 1);
+        LocalDate second = LocalDate.of(2018, 2, 1);
+        Series largeFirst = new Series.Builder()
+                .add(first, new BigDecimal("123456789012"))
+                .add(second, new BigDecimal("0.12345678"))
+                .build();
+        Series smallFirst = new Series.Builder()
+                .add(first, new BigDecimal("0.12345678"))
+                .add(second, new BigDecimal("123456789012"))
+                .build();
+
+        assertAll(
+                () -> assertEquals(7, largeFirst.getScale()),
+                () -> assertEquals(new BigDecimal("123456789012"), largeFirst.getDecimalValue(0)),
+                () -> assertEquals(new BigDecimal("0.1234568"), largeFirst.getDecimalValue(1)),
+                () -> assertEquals(7, smallFirst.getScale()),
+                () -> assertEquals(new BigDecimal("0.1234568"), smallFirst.getDecimalValue(0)),
+                () -> assertEquals(new BigDecimal("123456789012"), smallFirst.getDecimalValue(1))
+        );
+    }
+
+    @Test
+    void seriesCreatedFromColumnsShouldBeEqualToBuiltSeries() {
+        Series built = new Series.Builder()
+                .add(LocalDate.of(2018, 1, 1), new BigDecimal("1.5"))
+                .add(LocalDate.of(2018, 2, 1), new BigDecimal("2.125"))
+                .build();
+        int[] epochDays = {built.getEpochDay(0), built.getEpochDay(1)};
+
+        assertAll(
+                () -> assertEquals(built, Series.ofColumns(null, epochDays,
+                        new long[]{1500, 2125}, 3, new byte[]{1, 3})),
+                () -> assertEquals(new Series.Builder().add(epochDays[0], 1500, 3).build(),
+                        Series.ofColumns(null, new int[]{epochDays[0]}, new long[]{1500}, 3,
+                                new byte[]{3})),
+                () -> assertThrows(IllegalArgumentException.class, () -> Series.ofColumns(null,
+                        epochDays, new long[]{1500, 2125}, 1, new byte[]{1, 3}))
+        );
+    }
+
+    @Test
+    void fingerprintShouldDependOnObservationsOnly() {
+        Series series = getMockedSeries();
+        Header header = new Header("ID", "Title", LocalDate.of(1900, 1, 1),
+                LocalDate.of(2018, 1, 1), "Annual", "Units");
+        Series changed = series.merge(null, LocalDate.of(2018, 1, 1), new Series.Builder()
+                .add(LocalDate.of(2018, 1, 1), new BigDecimal("119.5")).build());
+
+        assertAll(
+                () -> assertEquals(series.getFingerprint(), getMockedSeries().getFingerprint()),
+                () -> assertEquals(series.getFingerprint(), series.withHeader(header).getFingerprint()),
+                () -> assertNotEquals(series.getFingerprint(), changed.getFingerprint()),
+                () -> assertNotEquals(series, changed)
+        );
+    }
+
     @Test
     void equalsContract() {
-        EqualsVerifier.forClass(Series.class).verify();
+        Series red = new Series.Builder().add(LocalDate.of(2000, 1, 1), BigDecimal.ONE).build();
+        Series blue = new Series.Builder().add(LocalDate.of(2000, 1, 1), BigDecimal.TEN).build();
+
+        EqualsVerifier.forClass(Series.class).withIgnoredFields("derivedSeries", "rangeIndex", "detailPyramid")
+                .withPrefabValues(DetailPyramid.class, new DetailPyramid(red), new DetailPyramid(blue))
+                .suppress(Warning.STRICT_HASHCODE)
+                .verify();
     }
 }
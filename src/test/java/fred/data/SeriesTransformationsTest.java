@@ -0,0 +1,145 @@
+package fred.data;
+
+import fred.enumeration.Units;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesTransformationsTest {
+
+    private Series getQuarterlySeries() {
+        Header header = new Header("GDP", "Gross Domestic Product",
+                LocalDate.of(2017, 1, 1), LocalDate.of(2018, 7, 1),
+                "Quarterly", "Billions of Dollars");
+        String[] values = {"100.0", "102.0", "0", "104.5", "110.0", "99.5", "-1.0"};
+
+        Series.Builder builder = new Series.Builder(header);
+        LocalDate date = LocalDate.of(2017, 1, 1);
+        for (String value : values) {
+            builder.add(date, new BigDecimal(value));
+            date = date.plusMonths(3);
+        }
+
+        return builder.build();
+    }
+
+    @Test
+    void changeShouldBeExact() {
+        Series change = getQuarterlySeries().transform(Units.CHANGE);
+
+        List<BigDecimal> expected = Arrays.asList(new BigDecimal("2.0"), new BigDecimal("-102.0"),
+                new BigDecimal("104.5"), new BigDecimal("5.5"), new BigDecimal("-10.5"),
+                new BigDecimal("-100.5"));
+        assertAll(
+                () -> assertEquals(expected, change.getValueList()),
+                () -> assertEquals(LocalDate.of(2017, 4, 1), change.getDate(0)),
+                () -> assertEquals("Billions of Dollars, Change", change.getHeader().getUnits())
+        );
+    }
+
+    @Test
+    void percentChangeFromYearAgoShouldSkipMissingAndZeroBase() {
+        Series percentChange = getQuarterlySeries().transform(Units.PERCENT_CHANGE_FROM_YEAR_AGO);
+
+        assertAll(
+                () -> assertEquals(2, percentChange.size()),
+                () -> assertEquals(LocalDate.of(2018, 1, 1), percentChange.getDate(0)),
+                () -> assertEquals(10.0, percentChange.getValue(0), 1e-9),
+                () -> assertEquals(LocalDate.of(2018, 4, 1), percentChange.getDate(1)),
+                () -> assertEquals(-2.45098, percentChange.getValue(1), 1e-6),
+                () -> assertEquals(LocalDate.of(2018, 1, 1),
+                        percentChange.getHeader().getObservation_start())
+        );
+    }
+
+    @Test
+    void changeFromYearAgoOfWeeklySeriesShouldGoBack52Weeks() {
+        Header header = new Header("ICSA", "Initial Claims", LocalDate.of(2014, 1, 3),
+                LocalDate.of(2018, 12, 21), "Weekly, Ending Friday", "Number");
+        Series.Builder builder = new Series.Builder(header);
+        LocalDate date = header.getObservation_start();
+        for (int i = 0; i < 260; i++, date = date.plusWeeks(1))
+            builder.add(date, BigDecimal.valueOf(i));
+
+        Series change = builder.build().transform(Units.CHANGE_FROM_YEAR_AGO);
+
+        assertAll(
+                () -> assertEquals(260 - 52, change.size()),
+                () -> assertEquals(LocalDate.of(2014, 1, 3).plusWeeks(52), change.getDate(0)),
+                () -> assertEquals(new BigDecimal("52"), change.getDecimalValue(0))
+        );
+    }
+
+    @Test
+    void percentChangeFromYearAgoOfDailySeriesShouldUseLatestEarlierObservation() {
+        Header header = new Header("DGS10", "10-Year Treasury Constant Maturity Rate",
+                LocalDate.of(2013, 1, 1), LocalDate.of(2018, 6, 22), "Daily", "Percent");
+        Series.Builder builder = new Series.Builder(header);
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = header.getObservation_start(); dates.size() < 1428; date = date.plusDays(1)) {
+            if (date.getDayOfWeek().getValue() >= 6) continue;
+            builder.add(date, BigDecimal.valueOf(100 + dates.size()));
+            dates.add(date);
+        }
+
+        Series percentChange = builder.build().transform(Units.PERCENT_CHANGE_FROM_YEAR_AGO);
+        long expected = dates.stream()
+                .filter(date -> !date.minusYears(1).isBefore(dates.get(0))).count();
+
+        LocalDate first = percentChange.getDate(0);
+        //a year before Monday 2015-01-05 is Sunday, so Friday 2014-01-03 is used
+        int monday = dates.indexOf(LocalDate.of(2015, 1, 5));
+        int friday = dates.indexOf(LocalDate.of(2014, 1, 3));
+        assertAll(
+                () -> assertEquals(expected, percentChange.size()),
+                () -> assertEquals(LocalDate.of(2014, 1, 1), first),
+                () -> assertEquals(((100.0 + monday) / (100.0 + friday) - 1) * 100,
+                        percentChange.getValue(percentChange.indexOf(LocalDate.of(2015, 1, 5).toEpochDay())),
+                        1e-6)
+        );
+    }
+
+    @Test
+    void naturalLogShouldSkipNonPositiveValues() {
+        Series log = getQuarterlySeries().transform(Units.NATURAL_LOG);
+
+        assertAll(
+                () -> assertEquals(5, log.size()),
+                () -> assertEquals(Math.log(100), log.getValue(0), 1e-6)
+        );
+    }
+
+    @Test
+    void movingAverageShouldAverageTrailingWindow() {
+        Series average = getQuarterlySeries().movingAverage(3);
+
+        assertAll(
+                () -> assertEquals(5, average.size()),
+                () -> assertEquals(LocalDate.of(2017, 7, 1), average.getDate(0)),
+                () -> assertEquals(202.0 / 3, average.getValue(0), 1e-6),
+                () -> assertEquals(69.5, average.getValue(4), 1e-6),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> getQuarterlySeries().movingAverage(0))
+        );
+    }
+
+    @Test
+    void transformedSeriesShouldBeRemembered() {
+        Series series = getQuarterlySeries();
+
+        assertAll(
+                () -> assertSame(series, series.transform(Units.LEVELS)),
+                () -> assertSame(series.transform(Units.PERCENT_CHANGE),
+                        series.transform(Units.PERCENT_CHANGE)),
+                () -> assertSame(series.movingAverage(4), series.movingAverage(4)),
+                () -> assertNotSame(series.transform(Units.CHANGE),
+                        series.withHeader(null).transform(Units.CHANGE))
+        );
+    }
+}
@@ -0,0 +1,53 @@
+package fred.network;
+
+import fred.data.Series;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Measures the whole download and parse pipeline against {@link FredStandInServer},
+ * so that results don't depend on the network. Run it with optional arguments:
+ * number of observations, latency in milliseconds, bandwidth in bytes per second
+ * (0 for unlimited) and number of measured iterations.
+ */
+public class FredConnectionBenchmark {
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        long bytesPerSecond = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        try (FredStandInServer server = new FredStandInServer()) {
+            server.addDailySeries("BENCH", LocalDate.of(1962, 1, 2), count);
+            server.setLatencyMillis(latencyMillis);
+            server.setBytesPerSecond(bytesPerSecond);
+
+            FredConnection.setApiKey("benchmark");
+            FredConnection.setTransport(server.createTransport());
+            FredConnection.setCache(null);
+            FredConnection.setRateLimiter(new RateLimiter(1_000_000, 1_000));
+
+            for (int i = 0; i < 3; i++) FredConnection.getSeries("BENCH");
+
+            long totalNanos = 0;
+            long bestNanos = Long.MAX_VALUE;
+            int observations = 0;
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                Series series = FredConnection.getSeries("BENCH");
+                long elapsed = System.nanoTime() - start;
+
+                observations = series.getObservationList().size();
+                totalNanos += elapsed;
+                bestNanos = Math.min(bestNanos, elapsed);
+            }
+
+            System.out.printf("observations: %d, latency: %d ms, bandwidth: %s%n",
+                    observations, latencyMillis,
+                    bytesPerSecond > 0 ? bytesPerSecond + " B/s" : "unlimited");
+            System.out.printf("mean: %.2f ms, best: %.2f ms (%d iterations)%n",
+                    totalNanos / 1e6 / iterations, bestNanos / 1e6, iterations);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package fred.network;
+
+import fred.data.Header;
+import fred.data.RecessionData;
+import fred.data.Series;
+import fred.enumeration.AggregationMethod;
+import fred.enumeration.Frequency;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FredConnectionTest {
+    private static FredStandInServer server;
+    private static Series fixture;
+
+    private Path cacheDirectory;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = new FredStandInServer();
+        server.addFixture("/fixtures/GDPC1.json");
+        server.addFixture("/fixtures/USREC.json");
+
+        fixture = FredStandInServer.loadFixture("/fixtures/GDPC1.json");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @BeforeEach
+    void connectToServer() throws IOException {
+        cacheDirectory = Files.createTempDirectory("fred-connection");
+
+        FredConnection.setApiKey("test");
+        FredConnection.setTransport(server.createTransport());
+        FredConnection.setCache(new SeriesCache(cacheDirectory));
+        FredConnection.setRateLimiter(new RateLimiter(1_000_000, 1_000));
+        FredConnection.setRetryPolicy(new RetryPolicy(10, 1, 5));
+
+        server.resetRequestCounts();
+    }
+
+    @AfterEach
+    void resetConnection() throws IOException {
+        server.setErrorRate(0);
+        server.setRetryAfter(null);
+        server.setLatencyMillis(0);
+        FredConnection.setPageSize(5_000);
+        FredConnection.setCache(null);
+
+        try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void downloadedSeriesShouldBeEqualToFixture() throws IOException {
+        assertEquals(fixture, FredConnection.getSeries("GDPC1"));
+    }
+
+    @Test
+    void pagedSeriesShouldBeEqualToFixture() throws IOException {
+        FredConnection.setPageSize(50);
+        Series series = FredConnection.getSeries("GDPC1");
+
+        int pages = (series.getObservationList().size() + 49) / 50;
+        assertAll(
+                () -> assertEquals(fixture, series),
+                () -> assertEquals(pages, server.getRequestCount("series/observations"))
+        );
+    }
+
+    @Test
+    void queryShouldLimitDownloadedObservations() throws IOException {
+        SeriesQuery query = new SeriesQuery("GDPC1")
+                .between(LocalDate.of(2000, 1, 1), LocalDate.of(2000, 12, 31));
+
+        assertEquals(4, FredConnection.getSeries(query).getObservationList().size());
+    }
+
+    @Test
+    void failedRequestsShouldBeRetried() throws IOException {
+        server.setErrorRate(0.3);
+
+        assertEquals(fixture, FredConnection.getSeries("GDPC1"));
+    }
+
+    @Test
+    void requestShouldNotBeRetriedLaterThanMaximumDelay() {
+        server.setErrorRate(1);
+        server.setRetryAfter("120");
+        FredHttpException e = assertThrows(FredHttpException.class,
+                () -> FredConnection.getSeries("GDPC1"));
+
+        assertAll(
+                () -> assertEquals(120_000, e.getRetryAfterMillis()),
+                () -> assertEquals(1, server.getRequestCount("series"))
+        );
+    }
+
+    @Test
+    void givenUnknownSeriesShouldThrowAnException() {
+        FredHttpException e = assertThrows(FredHttpException.class,
+                () -> FredConnection.getSeries("UNKNOWN"));
+
+        assertEquals(400, e.getStatusCode());
+    }
+
+    @Test
+    void upToDateSeriesShouldBeTakenFromCache() throws IOException {
+        Series downloaded = FredConnection.getSeries("GDPC1");
+        server.resetRequestCounts();
+        Series cached = FredConnection.getSeries("GDPC1");
+
+        assertAll(
+                () -> assertEquals(downloaded, cached),
+                () -> assertEquals(1, server.getRequestCount("series")),
+                () -> assertEquals(0, server.getRequestCount("series/observations"))
+        );
+    }
+
+    @Test
+    void aggregatedSeriesShouldBeRefreshedFromTheStartOfAPeriod() throws IOException {
+        server.addDailySeries("DAILY", LocalDate.of(2017, 1, 2), 600);
+        SeriesQuery query = new SeriesQuery("DAILY").aggregatedTo(Frequency.WEEKLY,
+                AggregationMethod.AVERAGE);
+        Series downloaded = FredConnection.getSeries(query);
+
+        //cached series lacks the last weeks, so it is refreshed incrementally
+        Header header = downloaded.getHeader();
+        int last = downloaded.indexOf(LocalDate.of(2018, 9, 5).toEpochDay());
+        Series cached = new Series.Builder(new Header(header.getId(), header.getTitle(),
+                header.getObservation_start(), downloaded.getDate(last - 1),
+                header.getFrequency(), header.getUnits(), "2018-01-01 00:00:00-06"))
+                .addAll(downloaded, 0, last).build();
+        new SeriesCache(cacheDirectory).store(query.getCacheKey(), cached);
+        FredConnection.getSeries(query);
+
+        //weeks aggregated by Fed end on Friday, so they start on Saturday
+        LocalDate firstDate = cached.getDate(cached.size() - 1).minusYears(1)
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.SATURDAY));
+        assertEquals(firstDate.toString(),
+                server.getLastParameters("series/observations").get("observation_start"));
+    }
+
+    @Test
+    void concurrentRequestsShouldShareOneDownload() throws Exception {
+        server.setLatencyMillis(200);
+        CompletableFuture<Series> first = FredConnection.getSeriesAsync("GDPC1");
+        CompletableFuture<Series> second = FredConnection.getSeriesAsync("GDPC1");
+
+        assertAll(
+                () -> assertEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS)),
+                () -> assertEquals(1, server.getRequestCount("series/observations"))
+        );
+    }
+
+    @Test
+    void batchShouldCollectFailuresPerSeries() throws InterruptedException {
+        SeriesBatch batch = FredConnection.getSeries(Arrays.asList("GDPC1", "UNKNOWN", "USREC"));
+        Map<String, Series> seriesMap = batch.awaitAll();
+
+        assertAll(
+                () -> assertEquals(Arrays.asList("GDPC1", "USREC"),
+                        Arrays.asList(seriesMap.keySet().toArray())),
+                () -> assertTrue(batch.getFailures().containsKey("UNKNOWN"))
+        );
+    }
+
+    @Test
+    void waitingForBatchResultShouldNotBlockOtherCallers() throws Exception {
+        Map<String, CompletableFuture<Series>> futureMap = new LinkedHashMap<>();
+        futureMap.put("GDPC1", new CompletableFuture<>());
+        futureMap.put("USREC", new CompletableFuture<>());
+        SeriesBatch batch = new SeriesBatch(futureMap);
+
+        CompletableFuture<SeriesBatch.Result> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return batch.next();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertTrue(batch.hasNext()));
+        futureMap.get("USREC").complete(fixture);
+        assertEquals("USREC", waiting.get(5, TimeUnit.SECONDS).getId());
+    }
+
+    @Test
+    void recessionDataShouldContainAllRecessions() throws Exception {
+        RecessionData recessionData = FredConnection.getRecessionData().get(5, TimeUnit.SECONDS);
+
+        assertEquals(11, recessionData.getRecessionCount());
+    }
+}
@@ -0,0 +1,424 @@
+package fred.network;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import fred.data.Header;
+import fred.data.Series;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process stand-in for Fred API. It serves {@code series} and
+ * {@code series/observations} responses built from JSON fixtures
+ * (in the layout of Fed responses) or from generated series,
+ * and can slow responses down or fail them on purpose.
+ * <p>
+ * Supported observation parameters: observation_start, observation_end,
+ * offset and limit. Frequency and aggregation parameters are ignored.
+ */
+public class FredStandInServer implements AutoCloseable {
+    private static final int DEFAULT_LIMIT = 100_000;
+    private static final int CHUNK_SIZE = 4 * 1024;
+    private static final Gson G = new GsonBuilder()
+            .registerTypeAdapter(LocalDate.class, new LocalDateAdapter()).create();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, StandInSeries> seriesMap = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requestCountMap = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> lastParametersMap = new ConcurrentHashMap<>();
+    private final Random random = new Random(42);
+
+    private volatile long latencyMillis;
+    private volatile long bytesPerSecond;
+    private volatile double errorRate;
+    private volatile int errorStatus = 503;
+    private volatile String retryAfter;
+
+    /**
+     * Creates new {@code FredStandInServer} object listening on a free local port.
+     * @throws IOException if the server can't be started
+     */
+    public FredStandInServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newFixedThreadPool(16, runnable -> {
+            Thread thread = new Thread(runnable, "fred-stand-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server.setExecutor(executor);
+        server.createContext("/fred/series", this::handle);
+        server.start();
+    }
+
+    /**
+     * Returns root of the API served by this server.
+     * @return base URL, i.e. http://127.0.0.1:8080/fred/
+     */
+    public String getBaseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort() + "/fred/";
+    }
+
+    /**
+     * Returns transport that sends requests to this server.
+     * @return new transport
+     */
+    public Transport createTransport() {
+        return new HttpTransport(getBaseUrl(), 5_000, 30_000);
+    }
+
+    /**
+     * Adds series stored in a classpath fixture, i.e. /fixtures/GDPC1.json.
+     * @param resourceName name of the fixture resource
+     * @return id of the added series
+     * @throws IOException if the fixture can't be read
+     */
+    public String addFixture(String resourceName) throws IOException {
+        InputStream stream = getClass().getResourceAsStream(resourceName);
+        if (stream == null) throw new IOException("Fixture not found: " + resourceName);
+
+        JsonObject fixture;
+        try (InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            fixture = new JsonParser().parse(reader).getAsJsonObject();
+        }
+
+        JsonObject header = fixture.getAsJsonArray("seriess").get(0).getAsJsonObject();
+        List<String[]> observationList = new ArrayList<>();
+        for (JsonElement element : fixture.getAsJsonArray("observations")) {
+            JsonObject observation = element.getAsJsonObject();
+            observationList.add(new String[]{observation.get("date").getAsString(),
+                    observation.get("value").getAsString()});
+        }
+
+        String id = header.get("id").getAsString();
+        seriesMap.put(id, new StandInSeries(header, observationList));
+        return id;
+    }
+
+    /**
+     * Reads series stored in a classpath fixture, i.e. to compare it
+     * with the downloaded one.
+     * @param resourceName name of the fixture resource
+     * @return {@code Series} object with header of the fixture
+     * @throws IOException if the fixture can't be read
+     */
+    public static Series loadFixture(String resourceName) throws IOException {
+        InputStream stream = FredStandInServer.class.getResourceAsStream(resourceName);
+        if (stream == null) throw new IOException("Fixture not found: " + resourceName);
+
+        Header header = null;
+        Series.Builder builder = new Series.Builder();
+        try (JsonReader in = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "seriess":
+                        in.beginArray();
+                        header = G.fromJson(in, Header.class);
+                        in.endArray();
+                        break;
+                    case "observations":
+                        ObservationReader.readObservations(in, builder);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+        }
+
+        return builder.build().withHeader(header);
+    }
+
+    /**
+     * Adds generated daily series with business-day observations following
+     * a random walk, i.e. to benchmark long histories.
+     * @param id id of the series
+     * @param start date of the first observation
+     * @param count number of observations
+     */
+    public void addDailySeries(String id, LocalDate start, int count) {
+        Random walk = new Random(id.hashCode());
+        List<String[]> observationList = new ArrayList<>(count);
+        LocalDate date = start;
+        long value = 10_000;
+        while (observationList.size() < count) {
+            if (date.getDayOfWeek().getValue() <= 5) {
+                String text = walk.nextInt(250) == 0 ? "." :
+                        String.format("%d.%04d", value / 10_000, value % 10_000);
+                observationList.add(new String[]{date.toString(), text});
+                value = Math.max(1, value + walk.nextInt(201) - 100);
+            }
+            date = date.plusDays(1);
+        }
+
+        JsonObject header = new JsonObject();
+        header.addProperty("id", id);
+        header.addProperty("title", "Generated daily series " + id);
+        header.addProperty("observation_start", observationList.get(0)[0]);
+        header.addProperty("observation_end", observationList.get(count - 1)[0]);
+        header.addProperty("frequency", "Daily");
+        header.addProperty("units", "Units");
+        header.addProperty("last_updated", LocalDate.now() + " 00:00:00-06");
+        seriesMap.put(id, new StandInSeries(header, observationList));
+    }
+
+    /**
+     * Sets delay added before every response is sent.
+     * @param latencyMillis delay in milliseconds
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Sets maximum rate at which each response body is sent.
+     * @param bytesPerSecond rate in bytes per second or 0 for no limit
+     */
+    public void setBytesPerSecond(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Sets probability that a request fails with the error status.
+     * @param errorRate probability between 0 and 1
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Sets status of the responses failed on purpose.
+     * @param errorStatus HTTP status, i.e. 429 or 503
+     */
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    /**
+     * Sets Retry-After header of the responses failed on purpose.
+     * @param retryAfter value of the header or null for no header
+     */
+    public void setRetryAfter(String retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns number of requests received for the given endpoint.
+     * @param path path of the endpoint, i.e. series/observations
+     * @return number of requests
+     */
+    public int getRequestCount(String path) {
+        AtomicInteger count = requestCountMap.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Returns parameters of the last request received for the given endpoint.
+     * @param path path of the endpoint, i.e. series/observations
+     * @return map of parameters, empty if there was no request
+     */
+    public Map<String, String> getLastParameters(String path) {
+        return lastParametersMap.getOrDefault(path, new HashMap<>());
+    }
+
+    /**
+     * Resets request counters.
+     */
+    public void resetRequestCounts() {
+        requestCountMap.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring("/fred/".length());
+            requestCountMap.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            lastParametersMap.put(path, parameters);
+
+            if (latencyMillis > 0) TimeUnit.MILLISECONDS.sleep(latencyMillis);
+
+            if (shouldFail()) {
+                String retryAfter = this.retryAfter;
+                if (retryAfter != null) exchange.getResponseHeaders().set("Retry-After", retryAfter);
+                sendError(exchange, errorStatus, "Service temporarily unavailable.");
+                return;
+            }
+            if (!parameters.containsKey("api_key")) {
+                sendError(exchange, 400, "Bad Request.  Variable api_key is not set.");
+                return;
+            }
+
+            StandInSeries series = seriesMap.get(parameters.getOrDefault("series_id", ""));
+            if (series == null) {
+                sendError(exchange, 400, "Bad Request.  The series does not exist.");
+                return;
+            }
+
+            switch (path) {
+                case "series":
+                    send(exchange, 200, createHeaderResponse(series));
+                    break;
+                case "series/observations":
+                    send(exchange, 200, createObservationsResponse(series, parameters));
+                    break;
+                default:
+                    sendError(exchange, 404, "Not Found");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private synchronized boolean shouldFail() {
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+
+    private static String createHeaderResponse(StandInSeries series) {
+        JsonObject response = new JsonObject();
+        JsonArray seriess = new JsonArray();
+        seriess.add(series.header);
+        response.add("seriess", seriess);
+
+        return response.toString();
+    }
+
+    private static String createObservationsResponse(StandInSeries series,
+                                                     Map<String, String> parameters) {
+        String start = parameters.getOrDefault("observation_start", "0000-00-00");
+        String end = parameters.getOrDefault("observation_end", "9999-99-99");
+        int offset = Integer.parseInt(parameters.getOrDefault("offset", "0"));
+        int limit = Integer.parseInt(parameters.getOrDefault("limit",
+                String.valueOf(DEFAULT_LIMIT)));
+
+        List<String[]> matching = new ArrayList<>();
+        for (String[] observation : series.observationList) {
+            if (observation[0].compareTo(start) >= 0 && observation[0].compareTo(end) <= 0)
+                matching.add(observation);
+        }
+
+        StringBuilder response = new StringBuilder()
+                .append("{\"realtime_start\":\"2018-12-01\",\"realtime_end\":\"2018-12-01\"")
+                .append(",\"observation_start\":\"").append(start).append('"')
+                .append(",\"observation_end\":\"").append(end).append('"')
+                .append(",\"units\":\"lin\",\"output_type\":1,\"file_type\":\"json\"")
+                .append(",\"order_by\":\"observation_date\",\"sort_order\":\"asc\"")
+                .append(",\"count\":").append(matching.size())
+                .append(",\"offset\":").append(offset)
+                .append(",\"limit\":").append(limit)
+                .append(",\"observations\":[");
+
+        int last = (int) Math.min(matching.size(), (long) offset + limit);
+        for (int i = offset; i < last; i++) {
+            String[] observation = matching.get(i);
+            if (i > offset) response.append(',');
+            response.append("{\"realtime_start\":\"2018-12-01\",\"realtime_end\":\"2018-12-01\"")
+                    .append(",\"date\":\"").append(observation[0])
+                    .append("\",\"value\":\"").append(observation[1]).append("\"}");
+        }
+
+        return response.append("]}").toString();
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message)
+            throws IOException, InterruptedException {
+        JsonObject error = new JsonObject();
+        error.addProperty("error_code", status);
+        error.addProperty("error_message", message);
+        send(exchange, status, error.toString());
+    }
+
+    private void send(HttpExchange exchange, int status, String body)
+            throws IOException, InterruptedException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        long rate = bytesPerSecond;
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int offset = 0; offset < bytes.length; offset += CHUNK_SIZE) {
+                int length = Math.min(CHUNK_SIZE, bytes.length - offset);
+                out.write(bytes, offset, length);
+                if (rate > 0) TimeUnit.NANOSECONDS.sleep(length * 1_000_000_000L / rate);
+            }
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query)
+            throws UnsupportedEncodingException {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) return parameters;
+
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator < 0) continue;
+
+            parameters.put(URLDecoder.decode(parameter.substring(0, separator), "UTF-8"),
+                    URLDecoder.decode(parameter.substring(separator + 1), "UTF-8"));
+        }
+
+        return parameters;
+    }
+
+    /**
+     * Series served by the stand-in.
+     */
+    private static final class StandInSeries {
+        private final JsonObject header;
+        private final List<String[]> observationList;
+
+        private StandInSeries(JsonObject header, List<String[]> observationList) {
+            this.header = header;
+            this.observationList = observationList;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package fred.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTransportTest {
+
+    @Test
+    void retryAfterShouldBeParsedFromSecondsOrDate() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(1));
+        long dateMillis = HttpTransport.parseRetryAfter(date);
+
+        assertAll(
+                () -> assertEquals(30_000, HttpTransport.parseRetryAfter("30")),
+                () -> assertTrue(dateMillis > 55_000 && dateMillis <= 60_000),
+                () -> assertEquals(0, HttpTransport.parseRetryAfter("Thu, 01 Jan 1970 00:00:00 GMT")),
+                () -> assertEquals(-1, HttpTransport.parseRetryAfter("soon")),
+                () -> assertEquals(-1, HttpTransport.parseRetryAfter(null))
+        );
+    }
+}
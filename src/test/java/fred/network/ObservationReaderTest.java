@@ -0,0 +1,72 @@
+package fred.network;
+
+import com.google.gson.stream.JsonReader;
+import fred.data.Observation;
+import fred.data.Series;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObservationReaderTest {
+
+    private static final String RESPONSE = "{\"realtime_start\":\"2019-01-01\"," +
+            "\"count\":3,\"units\":\"lin\",\"observations\":[" +
+            "{\"realtime_start\":\"2019-01-01\",\"date\":\"2018-01-01\",\"value\":\"1.50\"}," +
+            "{\"realtime_start\":\"2019-01-01\",\"date\":\"2018-04-01\",\"value\":\".\"}," +
+            "{\"date\":\"2018-07-01\",\"realtime_end\":\"2019-01-01\",\"value\":\"2.25\"}]}";
+
+    @Test
+    void shouldReadObservationsAndSkipMissingValues() throws IOException {
+        Series.Builder builder = new Series.Builder();
+        try (JsonReader in = new JsonReader(new StringReader(RESPONSE))) {
+            ObservationReader.seekMember(in, "observations");
+            ObservationReader.readObservations(in, builder);
+        }
+
+        List<Observation> expected = Arrays.asList(
+                new Observation(LocalDate.of(2018, 1, 1), new BigDecimal("1.50")),
+                new Observation(LocalDate.of(2018, 7, 1), new BigDecimal("2.25")));
+        assertEquals(expected, builder.build().getObservationList());
+    }
+
+    @Test
+    void pageShouldReportTotalCount() throws IOException {
+        Series.Builder builder = new Series.Builder();
+        int count;
+        try (JsonReader in = new JsonReader(new StringReader(RESPONSE))) {
+            count = ObservationReader.readObservationPage(in, builder);
+        }
+
+        assertAll(
+                () -> assertEquals(3, count),
+                () -> assertEquals(2, builder.size())
+        );
+    }
+
+    @Test
+    void givenPageWithoutCountShouldThrowAnException() {
+        String response = RESPONSE.replace("\"count\":3,", "");
+
+        assertThrows(IOException.class, () -> {
+            try (JsonReader in = new JsonReader(new StringReader(response))) {
+                ObservationReader.readObservationPage(in, new Series.Builder());
+            }
+        });
+    }
+
+    @Test
+    void givenMissingMemberShouldThrowAnException() {
+        assertThrows(IOException.class, () -> {
+            try (JsonReader in = new JsonReader(new StringReader(RESPONSE))) {
+                ObservationReader.seekMember(in, "seriess");
+            }
+        });
+    }
+}
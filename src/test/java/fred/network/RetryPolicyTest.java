@@ -0,0 +1,66 @@
+package fred.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    @Test
+    void onlyTransientFailuresShouldBeRetried() {
+        RetryPolicy policy = new RetryPolicy();
+
+        assertAll(
+                () -> assertTrue(policy.isRetryable(new FredHttpException(429, ""))),
+                () -> assertTrue(policy.isRetryable(new FredHttpException(503, ""))),
+                () -> assertTrue(policy.isRetryable(new SocketTimeoutException())),
+                () -> assertFalse(policy.isRetryable(new FredHttpException(400, ""))),
+                () -> assertFalse(policy.isRetryable(new InterruptedIOException())),
+                () -> assertFalse(policy.isRetryable(new IOException()))
+        );
+    }
+
+    @Test
+    void delayShouldGrowExponentiallyUpToMaximum() {
+        RetryPolicy policy = new RetryPolicy(10, 100, 1_000);
+
+        for (int i = 0; i < 100; i++) {
+            long firstDelay = policy.getDelayMillis(0);
+            long thirdDelay = policy.getDelayMillis(2);
+            long lastDelay = policy.getDelayMillis(9);
+
+            assertAll(
+                    () -> assertTrue(firstDelay >= 50 && firstDelay <= 100),
+                    () -> assertTrue(thirdDelay >= 200 && thirdDelay <= 400),
+                    () -> assertTrue(lastDelay >= 500 && lastDelay <= 1_000)
+            );
+        }
+    }
+
+    @Test
+    void delayShouldNotBeShorterThanRetryAfter() {
+        RetryPolicy policy = new RetryPolicy(10, 100, 1_000);
+
+        assertAll(
+                () -> assertEquals(800, policy.getDelayMillis(0, new FredHttpException(429, "", 800))),
+                () -> assertEquals(800, policy.getDelayMillis(0, new FredHttpException(503, "", 800))),
+                () -> assertTrue(policy.getDelayMillis(0, new FredHttpException(500, "", 800)) <= 100),
+                () -> assertTrue(policy.getDelayMillis(0, new FredHttpException(503, "")) <= 100),
+                () -> assertFalse(policy.isRetryable(new FredHttpException(503, "", 5_000)))
+        );
+    }
+
+    @Test
+    void givenInvalidArgumentsShouldThrowAnException() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new RetryPolicy(-1, 100, 1_000)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new RetryPolicy(3, 1_000, 100))
+        );
+    }
+}
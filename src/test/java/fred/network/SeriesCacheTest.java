@@ -0,0 +1,93 @@
+package fred.network;
+
+import fred.data.Header;
+import fred.data.Observation;
+import fred.data.Series;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesCacheTest {
+    private Path directory;
+    private SeriesCache cache;
+
+    @BeforeEach
+    void createCache() throws IOException {
+        directory = Files.createTempDirectory("series-cache");
+        cache = new SeriesCache(directory);
+    }
+
+    @AfterEach
+    void deleteCache() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private Series getMockedSeries() {
+        Header header = new Header("GDPC1", "Real Gross Domestic Product",
+                LocalDate.of(1947, 1, 1), LocalDate.of(1949, 10, 1),
+                "Quarterly", "Billions of Chained 2012 Dollars",
+                "2019-01-30 07:51:02-06");
+
+        List<Observation> observationList = new ArrayList<>();
+        BigDecimal value = new BigDecimal("1934.470");
+        for (LocalDate date = header.getObservation_start();
+             !date.isAfter(header.getObservation_end()); date = date.plusMonths(3)) {
+            observationList.add(new Observation(date, value));
+            value = value.add(new BigDecimal("12.125"));
+        }
+
+        return new Series(header, observationList);
+    }
+
+    @Test
+    void storedSeriesShouldBeEqualToLoadedSeries() throws IOException {
+        Series series = getMockedSeries();
+        cache.store("GDPC1", series);
+
+        assertAll(
+                () -> assertTrue(cache.contains("GDPC1")),
+                () -> assertEquals(series, cache.load("GDPC1"))
+        );
+    }
+
+    @Test
+    void givenMissingSeriesShouldReturnNull() throws IOException {
+        assertAll(
+                () -> assertFalse(cache.contains("UNRATE")),
+                () -> assertNull(cache.load("UNRATE"))
+        );
+    }
+
+    @Test
+    void removedSeriesShouldNotBeCached() throws IOException {
+        cache.store("GDPC1", getMockedSeries());
+        cache.remove("GDPC1");
+
+        assertFalse(cache.contains("GDPC1"));
+    }
+
+    @Test
+    void damagedSeriesShouldNotBeLoaded() throws IOException {
+        cache.store("GDPC1", getMockedSeries());
+        Path path = directory.resolve("GDPC1.series");
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 2;
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> cache.load("GDPC1"));
+    }
+}
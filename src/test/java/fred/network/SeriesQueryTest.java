@@ -0,0 +1,65 @@
+package fred.network;
+
+import fred.enumeration.AggregationMethod;
+import fred.enumeration.Frequency;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesQueryTest {
+
+    @Test
+    void givenInvalidArgumentsShouldThrowAnException() {
+        LocalDate start = LocalDate.of(2000, 1, 1);
+        LocalDate end = LocalDate.of(1999, 12, 31);
+
+        assertAll(
+                () -> assertThrows(NullPointerException.class,
+                        () -> new SeriesQuery(null)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new SeriesQuery("DEXUSEU", start, end, null, null)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new SeriesQuery("DEXUSEU", null, null, null,
+                                AggregationMethod.SUM)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new SeriesQuery("DEXUSEU", null, null, Frequency.MONTHLY,
+                                AggregationMethod.MAXIMUM))
+        );
+    }
+
+    @Test
+    void cacheKeyShouldDependOnQuery() {
+        SeriesQuery query = new SeriesQuery("DEXUSEU");
+        SeriesQuery aggregated = query.between(LocalDate.of(2000, 1, 1), null)
+                .aggregatedTo(Frequency.QUARTERLY, AggregationMethod.END_OF_PERIOD);
+
+        assertAll(
+                () -> assertEquals("DEXUSEU", query.getCacheKey()),
+                () -> assertEquals("DEXUSEU_2000-01-01__q_eop", aggregated.getCacheKey())
+        );
+    }
+
+    @Test
+    void parametersShouldBeMappedToFredNames() {
+        SeriesQuery query = new SeriesQuery("DEXUSEU", LocalDate.of(2000, 1, 1),
+                LocalDate.of(2010, 12, 31), Frequency.MONTHLY, AggregationMethod.AVERAGE);
+        Map<String, String> parameters = query.toParameters(LocalDate.of(2005, 1, 1));
+
+        assertAll(
+                () -> assertEquals("DEXUSEU", parameters.get("series_id")),
+                () -> assertEquals("2005-01-01", parameters.get("observation_start")),
+                () -> assertEquals("2010-12-31", parameters.get("observation_end")),
+                () -> assertEquals("m", parameters.get("frequency")),
+                () -> assertEquals("avg", parameters.get("aggregation_method"))
+        );
+    }
+
+    @Test
+    void equalsContract() {
+        EqualsVerifier.forClass(SeriesQuery.class).verify();
+    }
+}
@@ -0,0 +1,62 @@
+package fred.network;
+
+import fred.data.Header;
+import fred.data.Series;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesSnapshotTest {
+    private Series getMockedSeries(int count) {
+        Header header = new Header("UNRATE", "Unemployment Rate",
+                LocalDate.of(1948, 1, 1), LocalDate.of(1948, 1, 1).plusMonths(count - 1),
+                "Monthly", "Percent", null);
+
+        Series.Builder builder = new Series.Builder(header);
+        LocalDate date = header.getObservation_start();
+        for (int i = 0; i < count; i++, date = date.plusMonths(1))
+            builder.add(date, BigDecimal.valueOf(30 + i % 7 - i % 3, 1));
+
+        return builder.build();
+    }
+
+    @Test
+    void decodedSeriesShouldBeEqualToEncodedSeries() throws IOException {
+        Series series = getMockedSeries(120);
+
+        assertEquals(series, SeriesSnapshot.decode(ByteBuffer.wrap(SeriesSnapshot.encode(series))));
+    }
+
+    @Test
+    void irregularSeriesWithMixedScalesShouldBeDecoded() throws IOException {
+        Header header = new Header("TEST", "Test", LocalDate.of(1900, 1, 1),
+                LocalDate.of(2100, 1, 1), "Daily", "Index", "2019-01-30 07:51:02-06");
+        Series series = new Series.Builder(header)
+                .add(LocalDate.of(1900, 1, 1), new BigDecimal("-12.5"))
+                .add(LocalDate.of(1900, 1, 2), new BigDecimal("7"))
+                .add(LocalDate.of(1999, 12, 31), new BigDecimal("0.000001"))
+                .add(LocalDate.of(2100, 1, 1), new BigDecimal("123456789012.25"))
+                .build();
+
+        assertEquals(series, SeriesSnapshot.decode(ByteBuffer.wrap(SeriesSnapshot.encode(series))));
+    }
+
+    @Test
+    void regularSeriesShouldTakeFewBytesPerObservation() {
+        assertTrue(SeriesSnapshot.encode(getMockedSeries(1000)).length < 2100);
+    }
+
+    @Test
+    void truncatedSnapshotShouldNotBeDecoded() {
+        byte[] bytes = SeriesSnapshot.encode(getMockedSeries(12));
+
+        assertThrows(IOException.class, () -> SeriesSnapshot.decode(
+                ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 3))));
+    }
+}